@@ -12,7 +12,7 @@ if not exist out (
 
 REM Compile all necessary Java source files into the 'out' directory
 echo Compiling all source packages...
-javac --module-path %JAVAFX_LIB% --add-modules javafx.controls,javafx.fxml -d out src\com\inventory\*.java src\com\inventory\gui\*.java src\com\inventory\managers\*.java src\com\inventory\models\*.java
+javac --module-path %JAVAFX_LIB% --add-modules javafx.controls,javafx.fxml,jdk.incubator.vector -d out src\com\inventory\*.java src\com\inventory\gui\*.java src\com\inventory\managers\*.java src\com\inventory\models\*.java
 
 REM Check if compilation was successful
 if %ERRORLEVEL% EQU 0 (
@@ -22,7 +22,7 @@ if %ERRORLEVEL% EQU 0 (
     echo Running JavaFX application...
 
     REM Run the application from the 'out' directory
-    java --module-path %JAVAFX_LIB% --add-modules javafx.controls,javafx.fxml -cp out com.inventory.gui.InventoryManagementApp
+    java --module-path %JAVAFX_LIB% --add-modules javafx.controls,javafx.fxml,jdk.incubator.vector -cp out com.inventory.gui.InventoryManagementApp
 
 ) else (
     echo.
@@ -16,7 +16,7 @@ $sourceFiles = Get-ChildItem -Recurse -Filter "*.java" src | ForEach-Object { $_
 
 # Updated classpath to include JavaFX SDK
 $classpath = ".;src;$javafxLibPath/*"
-javac --module-path $javafxLibPath --add-modules javafx.controls,javafx.fxml -cp $classpath -d out $sourceFiles
+javac --module-path $javafxLibPath --add-modules javafx.controls,javafx.fxml,jdk.incubator.vector -cp $classpath -d out $sourceFiles
 
 if ($LASTEXITCODE -eq 0) {
     Write-Host ""
@@ -24,7 +24,7 @@ if ($LASTEXITCODE -eq 0) {
     Write-Host ""
     Write-Host "Running JavaFX application..." -ForegroundColor Green
     $runClasspath = "out;$javafxLibPath\*"
-    java --module-path $javafxLibPath --add-modules javafx.controls,javafx.fxml -cp $runClasspath com.inventory.gui.InventoryManagementApp
+    java --module-path $javafxLibPath --add-modules javafx.controls,javafx.fxml,jdk.incubator.vector -cp $runClasspath com.inventory.gui.InventoryManagementApp
 } else {
     Write-Host ""
     Write-Host "Compilation failed! Please check the error messages above." -ForegroundColor Red
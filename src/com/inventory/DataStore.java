@@ -1,8 +1,21 @@
 package com.inventory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
 
 public class DataStore {
     
@@ -11,16 +24,52 @@ public class DataStore {
     public static final String SUPPLIERS_FILE = "suppliers.dat";
     public static final String ORDERS_FILE = "orders.dat";
     public static final String USERS_FILE = "users.dat"; // Added for Phase 8
+    public static final String SEQUENCES_FILE = "sequences.dat"; // ID high-water marks, see SequenceService
+    public static final String ORDER_ARCHIVE_DIR = "orders.archive"; // Compressed orders of past months
+    
+    // Append-only mutation logs live next to their snapshot file
+    public static final String JOURNAL_SUFFIX = ".journal";
+    
+    // Snapshot generations: a new snapshot is written to .tmp, the replaced one is kept as .prev
+    public static final String TEMP_SUFFIX = ".tmp";
+    public static final String PREVIOUS_SUFFIX = ".prev";
+    public static final String CORRUPT_SUFFIX = ".corrupt";
+    
+    private static final int SNAPSHOT_MAGIC = 0x494D5353; // "IMSS"
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 8 + 4; // magic, record count, body length, CRC32C
+    
+    // Journals start with magic and version; each record is then length, CRC32C, bytes.
+    // Journals without the header are from before record checksums and have length, bytes.
+    private static final int JOURNAL_MAGIC = 0x494D534A; // "IMSJ"
+    private static final int JOURNAL_VERSION = 2;
+    private static final int JOURNAL_HEADER_BYTES = 4 + 4;
+    
+    // Loads started by prefetch(), picked up by the next loadData() call for the same file
+    private static final Map<String, CompletableFuture<Object>> prefetched = new ConcurrentHashMap<>();
     
     /**
-     * Save data to a file using Java Serialization
+     * Save data to a file as a crash-safe snapshot.
+     * The snapshot is written to a temporary file, synced and then renamed over the
+     * live file, so a crash mid-write never leaves a truncated data file behind. The
+     * replaced snapshot is kept as the previous generation for recovery.
+     * Model lists are written with the compact ModelCodec format; anything else
+     * falls back to Java Serialization.
      * @param fileName The name of the file to save to
      * @param data The data object to serialize
      * @return true if save was successful, false otherwise
      */
     public static boolean saveData(String fileName, Object data) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(fileName))) {
-            oos.writeObject(data);
+        File target = new File(fileName);
+        File temp = new File(fileName + TEMP_SUFFIX);
+        try {
+            writeSnapshot(temp, data);
+            // Keep the current snapshot as the fallback generation, then swap in the new one
+            if (target.exists()) {
+                Files.move(target.toPath(), new File(fileName + PREVIOUS_SUFFIX).toPath(),
+                           StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(target);
             System.out.println("✓ Data saved successfully to " + fileName);
             return true;
         } catch (IOException e) {
@@ -30,31 +79,403 @@ public class DataStore {
     }
     
     /**
-     * Load data from a file using Java Deserialization
+     * Load data from a file.
+     * The snapshot checksum is verified while reading; if the live file is missing or
+     * damaged the newest intact generation is used instead. Files in an older format
+     * (Java Serialization or unchecksummed ModelCodec) are read once and immediately
+     * rewritten as checksummed snapshots.
      * @param fileName The name of the file to load from
      * @param <T> The type of data to load
      * @return The loaded data object, or null if loading failed
      */
     @SuppressWarnings("unchecked")
     public static <T> T loadData(String fileName) {
+        CompletableFuture<Object> pending = prefetched.remove(fileName);
+        if (pending != null) {
+            return (T) pending.join();
+        }
+        return readData(fileName);
+    }
+    
+    /**
+     * Start loading several data files concurrently in the background.
+     * The next loadData() call for each file waits for and returns the prefetched result.
+     * @param fileNames The files to load
+     */
+    public static void prefetch(String... fileNames) {
+        ExecutorService loader = Executors.newFixedThreadPool(Math.max(1, fileNames.length), task -> {
+            Thread thread = new Thread(task, "data-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String fileName : fileNames) {
+            prefetched.put(fileName, CompletableFuture.supplyAsync(() -> readData(fileName), loader));
+        }
+        loader.shutdown(); // Threads exit once the submitted loads finish
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T readData(String fileName) {
         File file = new File(fileName);
+        File temp = new File(fileName + TEMP_SUFFIX);
+        File previous = new File(fileName + PREVIOUS_SUFFIX);
         
-        // If file doesn't exist, return null (will be handled by caller)
-        if (!file.exists()) {
+        // If no generation exists, return null (will be handled by caller)
+        if (!file.exists() && !temp.exists() && !previous.exists()) {
             System.out.println("ℹ No existing data file found: " + fileName + " (will start with empty data)");
             return null;
         }
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            T data = (T) ois.readObject();
-            System.out.println("✓ Data loaded successfully from " + fileName);
+        // Newest first: the live file, a fully written snapshot whose rename was
+        // interrupted, then the previous generation
+        for (File candidate : new File[] { file, temp, previous }) {
+            if (!candidate.exists()) {
+                continue;
+            }
+            
+            T data;
+            boolean legacyFormat;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(candidate))) {
+                legacyFormat = !hasSnapshotHeader(in);
+                data = legacyFormat ? (T) readLegacy(in) : (T) readSnapshot(in, candidate.length());
+            } catch (IOException | ClassNotFoundException e) {
+                System.err.println("✗ Error reading data from " + candidate.getName() + ": " + e.getMessage());
+                if (candidate == file) {
+                    // Keep the damaged file aside so the next save cannot push the good generation out
+                    candidate.renameTo(new File(fileName + CORRUPT_SUFFIX));
+                }
+                continue;
+            }
+            
+            if (candidate == file) {
+                System.out.println("✓ Data loaded successfully from " + fileName);
+            } else {
+                System.err.println("⚠ Recovered " + fileName + " from " + candidate.getName());
+            }
+            
+            // One-time migration of files written before crash-safe snapshots
+            if (legacyFormat && candidate == file && saveData(fileName, data)) {
+                System.out.println("✓ Migrated " + fileName + " to checksummed binary format");
+            } else if (candidate == temp) {
+                try {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    System.err.println("✗ Could not restore " + fileName + ": " + e.getMessage());
+                }
+            }
             return data;
+        }
+        
+        System.err.println("✗ No readable generation of " + fileName + " was found");
+        return null;
+    }
+    
+    // Envelope: int magic, int recordCount, long bodyLength, int crc32c, body
+    private static void writeSnapshot(File temp, Object data) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(temp)) {
+            FileChannel channel = file.getChannel();
+            channel.position(SNAPSHOT_HEADER_BYTES);
+            
+            CRC32C crc = new CRC32C();
+            OutputStream body = new BufferedOutputStream(new CheckedOutputStream(file, crc), 64 * 1024);
+            if (ModelCodec.canEncode(data)) {
+                DataOutputStream dos = new DataOutputStream(body);
+                ModelCodec.writeList(dos, (List<?>) data);
+                dos.flush();
+            } else {
+                ObjectOutputStream oos = new ObjectOutputStream(body);
+                oos.writeObject(data);
+                oos.flush();
+            }
+            long bodyLength = channel.position() - SNAPSHOT_HEADER_BYTES;
+            
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            header.putInt(SNAPSHOT_MAGIC);
+            header.putInt(data instanceof List ? ((List<?>) data).size() : 1);
+            header.putLong(bodyLength);
+            header.putInt((int) crc.getValue());
+            header.flip();
+            channel.write(header, 0);
+            file.getFD().sync();
         } catch (IOException e) {
-            System.err.println("✗ Error reading data from " + fileName + ": " + e.getMessage());
-            return null;
-        } catch (ClassNotFoundException e) {
-            System.err.println("✗ Error: Data format in " + fileName + " is incompatible: " + e.getMessage());
-            return null;
+            temp.delete();
+            throw e;
+        }
+    }
+    
+    // The body is read once and verified before decoding, so a damaged length field
+    // can never make the decoder allocate or read garbage
+    private static Object readSnapshot(InputStream in, long fileLength) throws IOException, ClassNotFoundException {
+        DataInputStream header = new DataInputStream(in);
+        header.readInt(); // magic, already checked
+        int recordCount = header.readInt();
+        long bodyLength = header.readLong();
+        int expectedCrc = header.readInt();
+        if (bodyLength < 0 || fileLength != SNAPSHOT_HEADER_BYTES + bodyLength) {
+            throw new IOException("snapshot is truncated (" + fileLength + " of "
+                                  + (SNAPSHOT_HEADER_BYTES + bodyLength) + " bytes)");
+        }
+        if (bodyLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("snapshot is too large to load (" + bodyLength + " bytes)");
+        }
+        
+        byte[] body = new byte[(int) bodyLength];
+        header.readFully(body);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+        
+        Object data = readLegacy(new ByteArrayInputStream(body));
+        int actualCount = data instanceof List ? ((List<?>) data).size() : 1;
+        if (actualCount != recordCount) {
+            throw new IOException("snapshot holds " + actualCount + " records, header says " + recordCount);
+        }
+        return data;
+    }
+    
+    // Body formats: ModelCodec, or Java Serialization for anything else (and for pre-codec files)
+    private static Object readLegacy(InputStream in) throws IOException, ClassNotFoundException {
+        if (ModelCodec.hasMagic(in)) {
+            return ModelCodec.readList(new DataInputStream(in));
+        }
+        return new ObjectInputStream(in).readObject();
+    }
+    
+    private static boolean hasSnapshotHeader(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return new DataInputStream(in).readInt() == SNAPSHOT_MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+    
+    // Make the rename itself durable; not every platform allows syncing a directory
+    private static void syncDirectory(File file) {
+        File directory = file.getAbsoluteFile().getParentFile();
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort (e.g. Windows cannot open directories)
+        }
+    }
+    
+    /**
+     * Get the journal file name that belongs to a snapshot file
+     * @param fileName The snapshot file name (e.g. products.dat)
+     * @return The journal file name (e.g. products.dat.journal)
+     */
+    public static String getJournalFileName(String fileName) {
+        return fileName + JOURNAL_SUFFIX;
+    }
+    
+    /**
+     * Append a single mutation record to the journal of a snapshot file
+     * @param fileName The snapshot file the journal belongs to
+     * @param entry The mutation to append
+     * @return true if the entry was written, false otherwise
+     */
+    public static boolean appendJournal(String fileName, JournalEntry entry) {
+        return appendJournal(fileName, Collections.singletonList(entry));
+    }
+    
+    /**
+     * Append a group of mutation records to the journal of a snapshot file and
+     * sync the journal once for the whole group.
+     * Each record is length-prefixed and checksummed, so a torn or misread
+     * record is detected during replay instead of being applied.
+     * @param fileName The snapshot file the journal belongs to
+     * @param entries The mutations to append, in order
+     * @return true if all entries were written, false otherwise
+     */
+    public static boolean appendJournal(String fileName, List<JournalEntry> entries) {
+        String journalFile = getJournalFileName(fileName);
+        boolean newJournal = new File(journalFile).length() == 0;
+        try (FileOutputStream file = new FileOutputStream(journalFile, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            if (newJournal) {
+                out.writeInt(JOURNAL_MAGIC);
+                out.writeInt(JOURNAL_VERSION);
+            }
+            for (JournalEntry entry : entries) {
+                writeJournalRecord(out, encodeJournalEntry(entry));
+            }
+            out.flush();
+            file.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("✗ Error appending to journal " + journalFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Read every complete mutation record from the journal of a snapshot file.
+     * Replay stops at the first torn, garbled or unreadable record, and the journal is
+     * then cut back to the records before it, so later appends never land behind damaged
+     * bytes. A journal from before record checksums is rewritten in the current format.
+     * @param fileName The snapshot file the journal belongs to
+     * @return The journal entries in the order they were written (empty if there is no journal)
+     */
+    public static List<JournalEntry> readJournal(String fileName) {
+        List<JournalEntry> entries = new ArrayList<>();
+        File file = new File(getJournalFileName(fileName));
+        if (!file.exists()) {
+            return entries;
+        }
+        
+        long remaining = file.length();
+        long goodLength = 0; // End of the last record that was read back intact
+        boolean checksummed = false;
+        boolean damaged = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (remaining >= JOURNAL_HEADER_BYTES) {
+                in.mark(JOURNAL_HEADER_BYTES);
+                checksummed = in.readInt() == JOURNAL_MAGIC;
+                if (checksummed) {
+                    int version = in.readInt();
+                    if (version != JOURNAL_VERSION) {
+                        // Not ours to cut back; the snapshot alone is loaded
+                        System.err.println("✗ Unsupported journal version " + version + " in " + file.getName());
+                        return entries;
+                    }
+                    remaining -= JOURNAL_HEADER_BYTES;
+                    goodLength = JOURNAL_HEADER_BYTES;
+                } else {
+                    in.reset();
+                }
+            }
+            int recordHeader = checksummed ? 8 : 4;
+            while (remaining > 0) {
+                // A torn or garbage length is treated like a truncated tail, never allocated
+                if (remaining < recordHeader) {
+                    damaged = true;
+                    break;
+                }
+                int length = in.readInt();
+                int checksum = checksummed ? in.readInt() : 0;
+                remaining -= recordHeader;
+                if (length < 0 || length > remaining) {
+                    damaged = true;
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                remaining -= length;
+                if (checksummed && checksum != checksum(record)) {
+                    damaged = true;
+                    break;
+                }
+                try {
+                    entries.add(decodeJournalEntry(record));
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    damaged = true;
+                    break;
+                }
+                goodLength += recordHeader + length;
+            }
+        } catch (IOException e) {
+            // The file could not be read, which says nothing about its contents; leave it alone
+            System.err.println("✗ Error reading journal " + file.getName() + ": " + e.getMessage());
+            return entries;
+        }
+        
+        if (damaged) {
+            System.err.println("✗ Ignoring damaged journal entries in " + file.getName() + " after " + entries.size() + " good ones");
+        }
+        if (!checksummed) {
+            rewriteJournal(file, entries);
+        } else if (damaged) {
+            try (RandomAccessFile journal = new RandomAccessFile(file, "rw")) {
+                journal.setLength(goodLength);
+                journal.getFD().sync();
+            } catch (IOException e) {
+                System.err.println("✗ Error truncating journal " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+    
+    // Replace a journal from before record checksums with the same entries in the current format
+    private static void rewriteJournal(File file, List<JournalEntry> entries) {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+                out.writeInt(JOURNAL_MAGIC);
+                out.writeInt(JOURNAL_VERSION);
+                for (JournalEntry entry : entries) {
+                    writeJournalRecord(out, encodeJournalEntry(entry));
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("✗ Error rewriting journal " + file.getName() + ": " + e.getMessage());
+            temp.delete();
+        }
+    }
+    
+    private static void writeJournalRecord(DataOutputStream out, byte[] record) throws IOException {
+        out.writeInt(record.length);
+        out.writeInt(checksum(record));
+        out.write(record);
+    }
+    
+    private static int checksum(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Remove the journal of a snapshot file once its entries are part of a new snapshot
+     * @param fileName The snapshot file the journal belongs to
+     * @return true if the journal no longer exists, false otherwise
+     */
+    public static boolean clearJournal(String fileName) {
+        File file = new File(getJournalFileName(fileName));
+        return !file.exists() || file.delete();
+    }
+    
+    private static byte[] encodeJournalEntry(JournalEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(entry.getOperation().ordinal());
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getDelta());
+            out.writeInt(entry.getQuantity());
+            Object payload = entry.getPayload();
+            out.writeBoolean(payload != null);
+            if (payload != null) {
+                ModelCodec.writeRecord(out, payload);
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static JournalEntry decodeJournalEntry(byte[] record) throws IOException, ClassNotFoundException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            JournalEntry.Operation operation = JournalEntry.Operation.values()[in.readByte()];
+            String key = in.readUTF();
+            int delta = in.readInt();
+            int quantity = in.readInt();
+            Serializable payload = null;
+            if (in.readBoolean()) {
+                // Entries written before the binary codec hold a Java Serialization stream
+                in.mark(1);
+                boolean legacyPayload = in.readUnsignedByte() == 0xAC;
+                in.reset();
+                payload = legacyPayload
+                        ? (Serializable) new ObjectInputStream(in).readObject()
+                        : (Serializable) ModelCodec.readRecord(in);
+            }
+            return JournalEntry.of(operation, key, delta, quantity, payload);
         }
     }
     
@@ -73,6 +494,10 @@ public class DataStore {
      * @return true if deletion was successful, false otherwise
      */
     public static boolean deleteDataFile(String fileName) {
+        // Older generations and the journal would otherwise resurrect the data on the next load
+        for (String suffix : new String[] { TEMP_SUFFIX, PREVIOUS_SUFFIX, JOURNAL_SUFFIX }) {
+            new File(fileName + suffix).delete();
+        }
         File file = new File(fileName);
         if (file.exists()) {
             boolean deleted = file.delete();
@@ -96,7 +521,7 @@ public class DataStore {
         StringBuilder info = new StringBuilder();
         info.append("\n=== Data File Information ===\n");
         
-        String[] files = {PRODUCTS_FILE, SUPPLIERS_FILE, ORDERS_FILE, USERS_FILE};
+        String[] files = {PRODUCTS_FILE, SUPPLIERS_FILE, ORDERS_FILE, USERS_FILE, SEQUENCES_FILE};
         for (String fileName : files) {
             File file = new File(fileName);
             if (file.exists()) {
@@ -105,11 +530,25 @@ public class DataStore {
                              sizeInBytes < 1024 * 1024 ? String.format("%.1f KB", sizeInBytes / 1024.0) :
                              String.format("%.1f MB", sizeInBytes / (1024.0 * 1024.0));
                 info.append(String.format("%-15s: %s (%s)\n", fileName, "EXISTS", size));
+                File journal = new File(getJournalFileName(fileName));
+                if (journal.exists()) {
+                    info.append(String.format("%-15s  + journal (%d B)\n", "", journal.length()));
+                }
             } else {
                 info.append(String.format("%-15s: %s\n", fileName, "NOT FOUND"));
             }
         }
         
+        // Archived order months, one segment file each
+        File[] segments = new File(ORDER_ARCHIVE_DIR).listFiles();
+        if (segments != null && segments.length > 0) {
+            long archiveBytes = 0;
+            for (File segment : segments) {
+                archiveBytes += segment.length();
+            }
+            info.append(String.format("%-15s: %d segments (%.1f KB)\n", ORDER_ARCHIVE_DIR, segments.length, archiveBytes / 1024.0));
+        }
+        
         return info.toString();
     }
 }
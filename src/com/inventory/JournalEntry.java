@@ -0,0 +1,79 @@
+package com.inventory;
+
+import java.io.Serializable;
+
+/**
+ * A single mutation record in an append-only data journal.
+ * Entries are replayed on top of the last snapshot at startup, so every
+ * operation is written to be idempotent (add/update are upserts and stock
+ * changes carry the resulting quantity as well as the delta).
+ */
+public class JournalEntry {
+
+    public enum Operation {
+        ADD, UPDATE, DELETE, STOCK_DELTA
+    }
+
+    private final Operation operation;
+    private final String key;
+    private final int delta;
+    private final int quantity;
+    private final Serializable payload;
+
+    private JournalEntry(Operation operation, String key, int delta, int quantity, Serializable payload) {
+        this.operation = operation;
+        this.key = key;
+        this.delta = delta;
+        this.quantity = quantity;
+        this.payload = payload;
+    }
+
+    public static JournalEntry add(String key, Serializable record) {
+        return new JournalEntry(Operation.ADD, key, 0, 0, record);
+    }
+
+    public static JournalEntry update(String key, Serializable record) {
+        return new JournalEntry(Operation.UPDATE, key, 0, 0, record);
+    }
+
+    public static JournalEntry delete(String key) {
+        return new JournalEntry(Operation.DELETE, key, 0, 0, null);
+    }
+
+    public static JournalEntry stockDelta(String key, int delta, int resultingQuantity) {
+        return new JournalEntry(Operation.STOCK_DELTA, key, delta, resultingQuantity, null);
+    }
+
+    // Used by DataStore when reading entries back from disk
+    static JournalEntry of(Operation operation, String key, int delta, int quantity, Serializable payload) {
+        return new JournalEntry(operation, key, delta, quantity, payload);
+    }
+
+    // Getters
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getPayload() {
+        return (T) payload;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JournalEntry{operation=%s, key='%s', delta=%d, quantity=%d}",
+                           operation, key, delta, quantity);
+    }
+}
@@ -0,0 +1,304 @@
+package com.inventory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.inventory.models.Order;
+import com.inventory.models.Product;
+import com.inventory.models.Supplier;
+import com.inventory.models.User;
+
+/**
+ * Compact, schema-versioned binary format for the model lists kept in the .dat files.
+ *
+ * File layout:
+ *   int magic, short version, byte type,
+ *   int dictionarySize, string[dictionarySize],
+ *   int recordCount, record[recordCount]
+ *
+ * Numbers are fixed-width big-endian primitives and strings are length-prefixed UTF-8
+ * (length -1 means null). Values that repeat across records (supplier IDs on products,
+ * product IDs and customer names on orders) are stored once in the dictionary and
+ * referenced by index.
+ */
+public final class ModelCodec {
+
+    public static final int MAGIC = 0x494D5344; // "IMSD"
+    public static final short VERSION = 2; // 2: orders carry a creation timestamp
+
+    // Largest array allocated up front from a length read from a file; bigger ones grow as data arrives
+    private static final int MAX_PRESIZE = 64 * 1024;
+
+    // Record type tags
+    private static final byte TYPE_EMPTY = 0;
+    private static final byte TYPE_PRODUCT = 1;
+    private static final byte TYPE_ORDER = 2;
+    private static final byte TYPE_SUPPLIER = 3;
+    private static final byte TYPE_USER = 4;
+
+    private ModelCodec() {
+    }
+
+    /**
+     * Check whether the codec can write the given object
+     * @param data The object passed to DataStore.saveData
+     * @return true for lists made up of a single model type
+     */
+    public static boolean canEncode(Object data) {
+        if (!(data instanceof List)) {
+            return false;
+        }
+        List<?> records = (List<?>) data;
+        if (records.isEmpty()) {
+            return true;
+        }
+        byte type = typeOf(records.get(0));
+        if (type == TYPE_EMPTY) {
+            return false;
+        }
+        for (Object record : records) {
+            if (typeOf(record) != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a stream starts with the codec header.
+     * The stream must support mark/reset; it is left at its original position.
+     */
+    public static boolean hasMagic(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            DataInputStream data = new DataInputStream(in);
+            return data.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Write a list of models with a shared string dictionary
+     */
+    public static void writeList(DataOutputStream out, List<?> records) throws IOException {
+        byte type = records.isEmpty() ? TYPE_EMPTY : typeOf(records.get(0));
+
+        // Build the dictionary of repeated values
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        for (Object record : records) {
+            for (String value : dictionaryValues(record)) {
+                if (value != null && !dictionary.containsKey(value)) {
+                    dictionary.put(value, entries.size());
+                    entries.add(value);
+                }
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(type);
+        out.writeInt(entries.size());
+        for (String entry : entries) {
+            writeString(out, entry);
+        }
+        out.writeInt(records.size());
+        for (Object record : records) {
+            writeBody(out, type, record, dictionary);
+        }
+    }
+
+    /**
+     * Read a list of models written by {@link #writeList}
+     */
+    public static List<Object> readList(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an inventory data file");
+        }
+        short version = checkVersion(in.readShort());
+        byte type = in.readByte();
+        int dictionarySize = checkCount(in.readInt(), "dictionary size");
+        List<String> entries = new ArrayList<>(Math.min(dictionarySize, MAX_PRESIZE));
+        for (int i = 0; i < dictionarySize; i++) {
+            entries.add(readString(in));
+        }
+        String[] dictionary = entries.toArray(new String[0]);
+        int count = checkCount(in.readInt(), "record count");
+        List<Object> records = new ArrayList<>(Math.min(count, MAX_PRESIZE));
+        for (int i = 0; i < count; i++) {
+            records.add(readBody(in, version, type, dictionary));
+        }
+        return records;
+    }
+
+    /**
+     * Write a single model with its type tag and inline strings (used by the journal)
+     */
+    public static void writeRecord(DataOutput out, Object record) throws IOException {
+        byte type = typeOf(record);
+        if (type == TYPE_EMPTY) {
+            throw new IOException("Unsupported record type: " + record.getClass().getName());
+        }
+        out.writeByte(type);
+        out.writeShort(VERSION);
+        writeBody(out, type, record, null);
+    }
+
+    /**
+     * Read a single model written by {@link #writeRecord}
+     */
+    public static Object readRecord(DataInput in) throws IOException {
+        byte type = in.readByte();
+        short version = checkVersion(in.readShort());
+        return readBody(in, version, type, null);
+    }
+
+    private static byte typeOf(Object record) {
+        if (record instanceof Product) return TYPE_PRODUCT;
+        if (record instanceof Order) return TYPE_ORDER;
+        if (record instanceof Supplier) return TYPE_SUPPLIER;
+        if (record instanceof User) return TYPE_USER;
+        return TYPE_EMPTY;
+    }
+
+    private static String[] dictionaryValues(Object record) {
+        if (record instanceof Product) {
+            return new String[] { ((Product) record).getSupplierId() };
+        }
+        if (record instanceof Order) {
+            Order order = (Order) record;
+            return new String[] { order.getProductId(), order.getCustomerName() };
+        }
+        return new String[0];
+    }
+
+    private static void writeBody(DataOutput out, byte type, Object record, Map<String, Integer> dictionary) throws IOException {
+        switch (type) {
+            case TYPE_PRODUCT:
+                Product product = (Product) record;
+                writeString(out, product.getId());
+                writeString(out, product.getName());
+                out.writeDouble(product.getPrice());
+                out.writeInt(product.getQuantity());
+                out.writeInt(product.getReorderLevel());
+                writeRef(out, product.getSupplierId(), dictionary);
+                break;
+            case TYPE_ORDER:
+                Order order = (Order) record;
+                writeString(out, order.getId());
+                writeRef(out, order.getProductId(), dictionary);
+                out.writeInt(order.getQuantity());
+                out.writeDouble(order.getTotalAmount());
+                writeRef(out, order.getCustomerName(), dictionary);
+                out.writeLong(order.getCreatedAt());
+                break;
+            case TYPE_SUPPLIER:
+                Supplier supplier = (Supplier) record;
+                writeString(out, supplier.getId());
+                writeString(out, supplier.getName());
+                writeString(out, supplier.getContactInfo());
+                break;
+            case TYPE_USER:
+                User user = (User) record;
+                writeString(out, user.getUsername());
+                writeString(out, user.getPassword());
+                writeString(out, user.getRole());
+                break;
+            default:
+                throw new IOException("Unsupported record type tag " + type);
+        }
+    }
+
+    private static Object readBody(DataInput in, short version, byte type, String[] dictionary) throws IOException {
+        switch (type) {
+            case TYPE_PRODUCT:
+                return new Product(readString(in), readString(in), in.readDouble(),
+                                   in.readInt(), in.readInt(), readRef(in, dictionary));
+            case TYPE_ORDER:
+                return new Order(readString(in), readRef(in, dictionary), in.readInt(),
+                                 in.readDouble(), readRef(in, dictionary),
+                                 version >= 2 ? in.readLong() : 0L);
+            case TYPE_SUPPLIER:
+                return new Supplier(readString(in), readString(in), readString(in));
+            case TYPE_USER:
+                return new User(readString(in), readString(in), readString(in));
+            default:
+                throw new IOException("Unsupported record type tag " + type);
+        }
+    }
+
+    // Dictionary reference when writing a list, inline string when writing a single record
+    private static void writeRef(DataOutput out, String value, Map<String, Integer> dictionary) throws IOException {
+        if (dictionary == null) {
+            writeString(out, value);
+        } else {
+            out.writeInt(value == null ? -1 : dictionary.get(value));
+        }
+    }
+
+    private static String readRef(DataInput in, String[] dictionary) throws IOException {
+        if (dictionary == null) {
+            return readString(in);
+        }
+        int index = in.readInt();
+        if (index < -1 || index >= dictionary.length) {
+            throw new IOException("Dictionary reference " + index + " out of range");
+        }
+        return index == -1 ? null : dictionary[index];
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        // Read in bounded steps, so a damaged length runs into the end of the data
+        // instead of allocating its full size up front
+        byte[] bytes = new byte[Math.min(length, MAX_PRESIZE)];
+        int read = 0;
+        while (read < length) {
+            if (read == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            in.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // File headers and single records both carry a version; an unknown one means corrupt data
+    private static short checkVersion(short version) throws IOException {
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported data format version " + version);
+        }
+        return version;
+    }
+
+    // Counts come from the file; a damaged one must not become a huge or negative allocation
+    private static int checkCount(int count, String what) throws IOException {
+        if (count < 0) {
+            throw new IOException("Invalid " + what + " " + count);
+        }
+        return count;
+    }
+}
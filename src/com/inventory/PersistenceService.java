@@ -0,0 +1,193 @@
+package com.inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence for the managers.
+ *
+ * Managers queue journal entries and "dirty" snapshot requests instead of writing
+ * to disk themselves. A single background thread collects everything queued within
+ * a short window (or until a batch fills up), writes it as one group and syncs each
+ * touched file once per group. Callers that need durability, such as application
+ * exit, wait on {@link #flush()}.
+ *
+ * Tuning (system properties):
+ *   inventory.persistence.maxLatencyMs - longest time a change may wait before being written (default 200)
+ *   inventory.persistence.maxBatch     - number of queued changes that triggers an immediate write (default 256)
+ */
+public class PersistenceService {
+
+    private static final long DEFAULT_MAX_LATENCY_MS = 200;
+    private static final int DEFAULT_MAX_BATCH = 256;
+
+    private static PersistenceService instance;
+
+    private final long maxLatencyMillis;
+    private final int maxBatchSize;
+
+    // Snapshot providers registered by the managers, keyed by data file
+    private final Map<String, Supplier<?>> snapshotProviders = new HashMap<>();
+
+    // Work waiting for the next group commit
+    private final Set<String> dirtySnapshots = new LinkedHashSet<>();
+    private final Map<String, List<JournalEntry>> pendingJournal = new LinkedHashMap<>();
+    private int pendingChanges;
+    private long oldestPendingAt;
+
+    // Flush barrier bookkeeping
+    private long requestedFlush;
+    private long completedFlush;
+
+    public PersistenceService(long maxLatencyMillis, int maxBatchSize) {
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.maxBatchSize = maxBatchSize;
+
+        Thread writer = new Thread(this::runWriter, "persistence-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        // Closing the window ends the JVM without calling exit(); don't lose queued changes
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "persistence-shutdown"));
+    }
+
+    /**
+     * Get the shared persistence service, configured from system properties
+     */
+    public static synchronized PersistenceService getInstance() {
+        if (instance == null) {
+            instance = new PersistenceService(
+                    Long.getLong("inventory.persistence.maxLatencyMs", DEFAULT_MAX_LATENCY_MS),
+                    Integer.getInteger("inventory.persistence.maxBatch", DEFAULT_MAX_BATCH));
+        }
+        return instance;
+    }
+
+    /**
+     * Register how to obtain a consistent copy of the data stored in a file.
+     * The supplier is called on the background thread and must return data
+     * that is safe to serialize while the manager keeps changing.
+     */
+    public synchronized void register(String fileName, Supplier<?> snapshot) {
+        snapshotProviders.put(fileName, snapshot);
+    }
+
+    /**
+     * Queue a full rewrite of a data file
+     */
+    public synchronized void markDirty(String fileName) {
+        dirtySnapshots.add(fileName);
+        changeQueued();
+    }
+
+    /**
+     * Queue a journal entry to be appended to a data file's journal
+     */
+    public synchronized void appendJournal(String fileName, JournalEntry entry) {
+        pendingJournal.computeIfAbsent(fileName, key -> new ArrayList<>()).add(entry);
+        changeQueued();
+    }
+
+    /**
+     * Block until every change queued before this call has been written and synced
+     */
+    public synchronized void flush() {
+        long target = ++requestedFlush;
+        notifyAll();
+        while (completedFlush < target) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void changeQueued() {
+        if (pendingChanges++ == 0) {
+            oldestPendingAt = System.currentTimeMillis();
+            notifyAll(); // Start the latency timer
+        } else if (pendingChanges >= maxBatchSize) {
+            notifyAll();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            Set<String> snapshots;
+            Map<String, List<JournalEntry>> journals;
+            Map<String, Supplier<?>> providers;
+            long generation;
+
+            synchronized (this) {
+                try {
+                    while (pendingChanges == 0 && requestedFlush <= completedFlush) {
+                        wait();
+                    }
+                    // Let more changes join this group until the batch fills, the
+                    // latency budget runs out or someone is waiting on flush()
+                    long now = System.currentTimeMillis();
+                    while (pendingChanges < maxBatchSize && requestedFlush <= completedFlush
+                            && now < oldestPendingAt + maxLatencyMillis) {
+                        wait(oldestPendingAt + maxLatencyMillis - now);
+                        now = System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                snapshots = new LinkedHashSet<>(dirtySnapshots);
+                journals = new LinkedHashMap<>(pendingJournal);
+                providers = new HashMap<>(snapshotProviders);
+                dirtySnapshots.clear();
+                pendingJournal.clear();
+                pendingChanges = 0;
+                generation = requestedFlush;
+            }
+
+            writeGroup(snapshots, journals, providers);
+
+            synchronized (this) {
+                completedFlush = Math.max(completedFlush, generation);
+                notifyAll();
+            }
+        }
+    }
+
+    private void writeGroup(Set<String> snapshots, Map<String, List<JournalEntry>> journals,
+                            Map<String, Supplier<?>> providers) {
+        for (Map.Entry<String, List<JournalEntry>> journal : journals.entrySet()) {
+            String fileName = journal.getKey();
+            if (snapshots.contains(fileName)) {
+                continue; // The snapshot taken below already contains these changes
+            }
+            if (!DataStore.appendJournal(fileName, journal.getValue())) {
+                snapshots.add(fileName); // Fall back to a full snapshot so the changes are not lost
+            }
+        }
+
+        for (String fileName : snapshots) {
+            Supplier<?> provider = providers.get(fileName);
+            if (provider == null) {
+                System.err.println("✗ No data registered for " + fileName);
+                continue;
+            }
+            // Taken after the journal batch was drained, so it includes every drained entry
+            if (DataStore.saveData(fileName, provider.get())) {
+                DataStore.clearJournal(fileName);
+            } else {
+                synchronized (this) {
+                    dirtySnapshots.add(fileName); // Retry with the next group
+                    changeQueued();
+                }
+            }
+        }
+    }
+}
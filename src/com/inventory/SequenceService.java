@@ -0,0 +1,229 @@
+package com.inventory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Monotonic ID sequences for orders, products and suppliers.
+ *
+ * Each sequence hands out numbers from an AtomicLong, so generating an ID never
+ * takes a lock. Numbers are reserved in blocks: the end of the current block
+ * (the high-water mark) is written to a small file before any number from the
+ * block is handed out, and only when a block runs out does a caller touch the
+ * disk again. On a normal exit the unused rest of each block is handed back;
+ * after a crash a sequence continues from its high-water mark, skipping the
+ * rest of the last block, so numbers may have gaps but are never reused.
+ *
+ * A sequence with no high-water mark yet (first run, or a missing or damaged
+ * file) starts from a seed computed by its manager from the loaded records.
+ */
+public final class SequenceService {
+
+    private static final int BLOCK_SIZE = 100;
+
+    private static SequenceService instance;
+
+    private final File file;
+    private final Map<String, Long> savedHighWater;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    /**
+     * One named sequence of numbers
+     */
+    public final class Sequence {
+        private final String name;
+        private final AtomicLong next;
+        private volatile long reservedUpTo; // Exclusive end of the block on disk
+
+        private Sequence(String name, long first) {
+            this.name = name;
+            this.next = new AtomicLong(first);
+            this.reservedUpTo = first;
+        }
+
+        /**
+         * Get the next number of the sequence
+         */
+        public long next() {
+            long value = next.getAndIncrement();
+            if (value >= reservedUpTo) {
+                reserveThrough(this, value);
+            }
+            return value;
+        }
+
+        /**
+         * Get the next number formatted as an ID, e.g. "O" + 007 = "O007"
+         */
+        public String nextId(String prefix) {
+            return prefix + String.format("%03d", next());
+        }
+
+        /**
+         * Get count consecutive IDs at once, e.g. for a batch import. The block they fall in
+         * is reserved with at most one write, instead of one per block boundary crossed.
+         */
+        public List<String> nextIds(String prefix, int count) {
+            List<String> ids = new ArrayList<>(count);
+            if (count <= 0) {
+                return ids;
+            }
+            long first = next.getAndAdd(count);
+            long last = first + count - 1;
+            if (last >= reservedUpTo) {
+                reserveThrough(this, last);
+            }
+            for (long value = first; value <= last; value++) {
+                ids.add(prefix + String.format("%03d", value));
+            }
+            return ids;
+        }
+
+        /**
+         * Make sure the sequence never hands out number or anything below it,
+         * e.g. after records were imported with IDs of their own
+         */
+        public void skipPast(long number) {
+            long current = next.get();
+            while (current <= number && !next.compareAndSet(current, number + 1)) {
+                current = next.get();
+            }
+            // The high-water mark must pass number too, or a restart would hand it out again
+            if (number >= reservedUpTo) {
+                reserveThrough(this, number);
+            }
+        }
+    }
+
+    SequenceService(File file) {
+        this.file = file;
+        this.savedHighWater = readHighWater(file);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::releaseUnusedBlocks, "sequence-shutdown"));
+    }
+
+    /**
+     * Get the shared sequence service, backed by sequences.dat in the working directory
+     */
+    public static synchronized SequenceService getInstance() {
+        if (instance == null) {
+            instance = new SequenceService(new File(DataStore.SEQUENCES_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Get a named sequence, creating it on first use
+     * @param name The sequence name, e.g. "order"
+     * @param seed Computes the first number when the sequence has no high-water mark yet;
+     *             typically one past the highest number among the loaded records
+     */
+    public Sequence sequence(String name, LongSupplier seed) {
+        return sequences.computeIfAbsent(name, key -> {
+            Long highWater = savedHighWater.get(key);
+            return new Sequence(key, highWater != null ? highWater : Math.max(1, seed.getAsLong()));
+        });
+    }
+
+    /**
+     * Seed for a sequence over existing records: one past the highest number in their
+     * IDs, ignoring the one-letter prefix (P012 -> 13). IDs that are not numbered are skipped.
+     */
+    public static <T> long nextNumberAfter(Collection<T> records, Function<T, String> idOf) {
+        long highest = 0;
+        for (T record : records) {
+            highest = Math.max(highest, numberOf(idOf.apply(record)));
+        }
+        return highest + 1;
+    }
+
+    /**
+     * Get the number of an ID after its one-letter prefix (P012 -> 12), or -1 if it is not numbered
+     */
+    public static long numberOf(String id) {
+        try {
+            return Long.parseLong(id.substring(1));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // Move the high-water mark past value and make it durable before value is used
+    private synchronized void reserveThrough(Sequence sequence, long value) {
+        if (value < sequence.reservedUpTo) {
+            return; // Another thread already reserved this block
+        }
+        long blockEnd = (value / BLOCK_SIZE + 1) * BLOCK_SIZE;
+        writeHighWater(sequence, blockEnd);
+        // Published only after the write, so no thread can skip past an unsaved block
+        sequence.reservedUpTo = blockEnd;
+    }
+
+    // On exit, shrink every reservation to the numbers actually handed out
+    private synchronized void releaseUnusedBlocks() {
+        if (sequences.isEmpty()) {
+            return;
+        }
+        for (Sequence sequence : sequences.values()) {
+            sequence.reservedUpTo = 0; // Any later next() now waits for this lock
+        }
+        for (Sequence sequence : sequences.values()) {
+            sequence.reservedUpTo = sequence.next.get();
+        }
+        writeHighWater(null, 0);
+    }
+
+    // Write every sequence's reservation, with reserved (if not null) moved to reservedEnd
+    private void writeHighWater(Sequence reserved, long reservedEnd) {
+        Properties values = new Properties();
+        Map<String, Long> sorted = new TreeMap<>(savedHighWater);
+        for (Sequence sequence : sequences.values()) {
+            sorted.put(sequence.name, sequence == reserved ? reservedEnd : sequence.reservedUpTo);
+        }
+        for (Map.Entry<String, Long> entry : sorted.entrySet()) {
+            values.setProperty(entry.getKey(), Long.toString(entry.getValue()));
+        }
+
+        File temp = new File(file.getPath() + DataStore.TEMP_SUFFIX);
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                values.store(new OutputStreamWriter(out, StandardCharsets.UTF_8), "ID sequence high-water marks");
+                out.getFD().sync();
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The IDs stay unique for this run; without the stale file a restart re-seeds from the records
+            System.err.println("✗ Error saving ID sequences: " + e.getMessage());
+            file.delete();
+        }
+    }
+
+    private static Map<String, Long> readHighWater(File file) {
+        Map<String, Long> highWater = new ConcurrentHashMap<>();
+        if (!file.exists()) {
+            return highWater;
+        }
+        Properties values = new Properties();
+        try (Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            values.load(in);
+            for (String name : values.stringPropertyNames()) {
+                highWater.put(name, Long.parseLong(values.getProperty(name).trim()));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("⚠ Ignoring unreadable " + file.getName() + " (" + e.getMessage() + "); IDs will be re-seeded from the data");
+            highWater.clear();
+        }
+        return highWater;
+    }
+}
@@ -183,10 +183,9 @@ public class DashboardScreen {
      */
     private VBox createStatsPanel() {
         // 1. Get live data from your managers
-        int productCount = InventoryManagementApp.getInventoryManager().getProducts().size();
+        int productCount = InventoryManagementApp.getInventoryManager().getProductCount();
         int supplierCount = InventoryManagementApp.getSupplierManager().getSuppliers().size();
-        long lowStockCount = InventoryManagementApp.getInventoryManager().getProducts().stream()
-                .filter(p -> p.getQuantity() <= p.getReorderLevel()).count();
+        int lowStockCount = InventoryManagementApp.getInventoryManager().getLowStockCount();
 
         // 2. Create the UI panel
         VBox statsBox = new VBox(15);
@@ -1,6 +1,7 @@
 package com.inventory.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -12,18 +13,26 @@ import com.inventory.managers.OrderManager;
 import com.inventory.managers.ReportManager;
 import com.inventory.managers.UserManager;
 import com.inventory.DataStore;
+import com.inventory.PersistenceService;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class InventoryManagementApp extends Application {
     
-    private static InventoryManager inventoryManager;
-    private static SupplierManager supplierManager;
-    private static OrderManager orderManager;
-    private static ReportManager reportManager;
-    private static UserManager userManager;
+    // Assigned on loader threads and read on the FX thread, hence volatile
+    private static volatile InventoryManager inventoryManager;
+    private static volatile SupplierManager supplierManager;
+    private static volatile OrderManager orderManager;
+    private static volatile ReportManager reportManager;
+    private static volatile UserManager userManager;
+    
+    // Background startup loading: users gate the login, everything else gates the dashboard
+    private static volatile CompletableFuture<Void> usersLoaded;
+    private static volatile CompletableFuture<Void> managersLoaded;
     
     private Stage primaryStage;
     private LoginScreen loginScreen;
@@ -79,19 +88,61 @@ public class InventoryManagementApp extends Application {
     }
     
     private void initializeManagers() {
-        try {
+        // Read all four data files at once; each manager picks up its prefetched data
+        DataStore.prefetch(DataStore.USERS_FILE, DataStore.PRODUCTS_FILE,
+                           DataStore.SUPPLIERS_FILE, DataStore.ORDERS_FILE);
+        
+        usersLoaded = CompletableFuture.runAsync(() -> userManager = new UserManager());
+        CompletableFuture<Void> inventoryLoaded = CompletableFuture.runAsync(() -> {
             inventoryManager = new InventoryManager();
-            supplierManager = new SupplierManager();
             orderManager = new OrderManager(inventoryManager);
             reportManager = new ReportManager(inventoryManager, orderManager);
-            userManager = new UserManager();
-            
-            System.out.println("✓ All managers initialized successfully");
-            
-        } catch (Exception e) {
-            showError("Initialization Error", "Failed to initialize managers", e.getMessage());
-            throw new RuntimeException("Manager initialization failed", e);
-        }
+        });
+        CompletableFuture<Void> suppliersLoaded = CompletableFuture.runAsync(() -> supplierManager = new SupplierManager());
+        managersLoaded = CompletableFuture.allOf(usersLoaded, inventoryLoaded, suppliersLoaded);
+        
+        managersLoaded.whenComplete((ignored, error) -> {
+            if (error == null) {
+                System.out.println("✓ All managers initialized successfully");
+            } else {
+                Throwable cause = causeOf(error);
+                cause.printStackTrace();
+                Platform.runLater(() -> showError("Initialization Error", "Failed to initialize managers", cause.getMessage()));
+            }
+        });
+    }
+    
+    /**
+     * Run an action on the JavaFX thread once user accounts are loaded,
+     * or onFailure with the cause if they could not be loaded
+     */
+    public void whenUsersLoaded(Runnable action, Consumer<Throwable> onFailure) {
+        runWhenDone(usersLoaded, action, onFailure);
+    }
+    
+    /**
+     * Run an action on the JavaFX thread once every manager has finished loading.
+     * A failed load has already been reported by initializeManagers, so the action is dropped.
+     */
+    public void whenManagersLoaded(Runnable action) {
+        runWhenDone(managersLoaded, action, error -> { });
+    }
+    
+    // Runs at once if loading is already over, otherwise on the FX thread when it ends
+    private void runWhenDone(CompletableFuture<Void> loading, Runnable action, Consumer<Throwable> onFailure) {
+        loading.whenComplete((ignored, error) -> {
+            Runnable next = error == null ? action : () -> onFailure.accept(causeOf(error));
+            if (Platform.isFxApplicationThread()) {
+                next.run();
+            } else {
+                Platform.runLater(next);
+            }
+        });
+    }
+    
+    // Loader failures arrive wrapped in a CompletionException
+    private static Throwable causeOf(Throwable error) {
+        return error.getCause() != null ? error.getCause() : error;
     }
     
     public void showLoginScreen() {
@@ -100,6 +151,10 @@ public class InventoryManagementApp extends Application {
     }
     
     public void showDashboard() {
+        if (!managersLoaded.isDone()) {
+            whenManagersLoaded(this::showDashboard);
+            return;
+        }
         dashboardScreen = new DashboardScreen(this);
         primaryStage.getScene().setRoot(dashboardScreen.getRoot());
     }
@@ -137,12 +192,17 @@ public class InventoryManagementApp extends Application {
     
     public void exit() {
         try {
+            // Don't save over the data files while they are still being read
+            managersLoaded.exceptionally(error -> null).join();
+            
             // Save all data before exiting
             if (inventoryManager != null) inventoryManager.saveProducts();
             if (supplierManager != null) supplierManager.saveSuppliers();
             if (orderManager != null) orderManager.saveOrders();
             if (userManager != null) userManager.saveUsers();
             
+            // Wait for the background writer to put everything on disk
+            PersistenceService.getInstance().flush();
             System.out.println("✓ All data saved successfully");
             
         } catch (Exception e) {
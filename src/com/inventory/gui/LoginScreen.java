@@ -131,6 +131,15 @@ public class LoginScreen {
             return;
         }
         
+        if (InventoryManagementApp.getUserManager() == null) {
+            // User accounts are still loading in the background; retry once they are ready
+            statusLabel.setText("Loading user accounts...");
+            statusLabel.setVisible(true);
+            app.whenUsersLoaded(this::handleLogin,
+                error -> showError("Could not load user accounts: " + error.getMessage()));
+            return;
+        }
+        
         try {
             UserManager userManager = InventoryManagementApp.getUserManager();
             
@@ -15,6 +15,12 @@ import com.inventory.models.Product;
 import com.inventory.managers.OrderManager;
 import com.inventory.managers.InventoryManager;
 import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import javafx.stage.FileChooser;
+import java.util.stream.Collectors;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import javafx.scene.control.ScrollPane;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
@@ -39,11 +45,20 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.scene.layout.Priority;
 
 public class OrdersScreen {
+    // Most products listed in the product picker at once; typing narrows the list
+    private static final int PRODUCT_PICKER_LIMIT = 200;
+    private static final String PERIOD_THIS_MONTH = "This month";
+    private static final String PERIOD_3_MONTHS = "Last 3 months";
+    private static final String PERIOD_12_MONTHS = "Last 12 months";
+    private static final String PERIOD_ALL = "All orders";
     
     private final InventoryManagementApp app;
     private final VBox root;
     private final TableView<Order> orderTable;
     private final ComboBox<Product> productComboBox;
+    private final TextField productSearchField;
+    private final TextField orderFilterField;
+    private final ComboBox<String> orderPeriodComboBox;
     private final TextField quantityField, 
     customerField;
     private final Label statusLabel;
@@ -67,6 +82,9 @@ public class OrdersScreen {
         // Initialize UI components
         orderTable = new TableView<>();
         productComboBox = new ComboBox<>();
+        productSearchField = new TextField();
+        orderFilterField = new TextField();
+        orderPeriodComboBox = new ComboBox<>();
         quantityField = new TextField();
         customerField = new TextField();
         statusLabel = new Label();
@@ -153,7 +171,20 @@ public class OrdersScreen {
             return row;
         });
 
-        tableContainer.getChildren().addAll(tableTitle, orderTable);
+        // Filter by exact product ID or customer name, answered from the order indexes
+        orderFilterField.setPromptText("Filter by product ID or customer name");
+        orderFilterField.setPrefWidth(300);
+        orderFilterField.setStyle("-fx-font-size: 14; -fx-background-radius: 20; -fx-background-color: rgba(255,255,255,0.9); -fx-border-radius: 20; -fx-border-color: #4a90e2; -fx-border-width: 2; -fx-text-fill: #2c3e50;");
+        orderFilterField.textProperty().addListener((obs, oldText, newText) -> loadOrders());
+
+        // Earlier months are archived; picking a longer period loads them on demand
+        orderPeriodComboBox.getItems().addAll(PERIOD_THIS_MONTH, PERIOD_3_MONTHS, PERIOD_12_MONTHS, PERIOD_ALL);
+        orderPeriodComboBox.setValue(PERIOD_THIS_MONTH);
+        orderPeriodComboBox.setStyle("-fx-font-size: 14; -fx-background-radius: 20; -fx-background-color: rgba(255,255,255,0.9); -fx-border-radius: 20; -fx-border-color: #4a90e2; -fx-border-width: 2;");
+        orderPeriodComboBox.setOnAction(e -> loadOrders());
+        HBox orderFilters = new HBox(10, orderFilterField, orderPeriodComboBox);
+
+        tableContainer.getChildren().addAll(tableTitle, orderFilters, orderTable);
         root.getChildren().add(tableContainer);
     }
     
@@ -173,12 +204,23 @@ public class OrdersScreen {
         
         // Style form fields
         styleFormField(productComboBox, "Choose a product...");
+        styleFormField(productSearchField, "Type a product name or ID");
         styleFormField(customerField, "Customer Name");
         styleFormField(quantityField, "Quantity");
         
         // Add form fields to grid
         formGrid.add(createFormLabel("📦 Product:"), 0, 0);
-        formGrid.add(productComboBox, 1, 0);
+        HBox productPicker = new HBox(10, productSearchField, productComboBox);
+        formGrid.add(productPicker, 1, 0);
+        
+        // Ranked suggestions from the product prefix index while typing
+        SuggestionPopup.attach(productSearchField, inventoryManager::suggestProducts,
+            product -> String.format("%s - %s (Stock: %d)", product.getId(), product.getName(), product.getQuantity()),
+            product -> {
+                productSearchField.setText(product.getName());
+                productComboBox.setValue(product);
+            });
+        productSearchField.textProperty().addListener((obs, oldText, newText) -> loadProducts());
         
         formGrid.add(createFormLabel("👤 Customer:"), 0, 1);
         formGrid.add(customerField, 1, 1);
@@ -229,6 +271,10 @@ public class OrdersScreen {
         processSaleBtn.setStyle("-fx-background-color: rgba(255,255,255,0.2); -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 25; -fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 25; -fx-padding: 15 30; -fx-font-size: 16px; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 5, 0, 0, 0);");
         processSaleBtn.setOnAction(e -> processSale());
         
+        Button importOrdersBtn = new Button("📥 Import Orders");
+        importOrdersBtn.setStyle("-fx-background-color: rgba(255,255,255,0.2); -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 25; -fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 25; -fx-padding: 15 30; -fx-font-size: 16px; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 5, 0, 0, 0);");
+        importOrdersBtn.setOnAction(e -> importOrders());
+        
         Button backBtn = new Button("🏠 Back to Dashboard");
         backBtn.setStyle("-fx-background-color: rgba(255,255,255,0.2); -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 25; -fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 25; -fx-padding: 15 30; -fx-font-size: 16px; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 5, 0, 0, 0);");
         backBtn.setOnAction(e -> app.showDashboard());
@@ -236,9 +282,10 @@ public class OrdersScreen {
         // Add hover effects for all buttons
         addHoverEffects(createOrderBtn);
         addHoverEffects(processSaleBtn);
+        addHoverEffects(importOrdersBtn);
         addHoverEffects(backBtn);
         
-        buttonBox.getChildren().addAll(createOrderBtn, processSaleBtn, backBtn);
+        buttonBox.getChildren().addAll(createOrderBtn, processSaleBtn, importOrdersBtn, backBtn);
         
         // Status label with enhanced styling
         statusLabel.setStyle("-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 16px; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 2, 0, 0, 0);");
@@ -313,7 +360,29 @@ public class OrdersScreen {
     
     private void loadOrders() {
         try {
-            List<Order> orders = orderManager.getOrders();
+            String filter = orderFilterField.getText().trim();
+            String period = orderPeriodComboBox.getValue();
+            List<Order> orders;
+            if (period == null || PERIOD_THIS_MONTH.equals(period)) {
+                // The current month is in memory and indexed
+                if (filter.isEmpty()) {
+                    orders = orderManager.getOrders();
+                } else {
+                    orders = orderManager.getOrdersForProduct(filter);
+                    if (orders.isEmpty()) {
+                        orders = orderManager.getOrdersForCustomer(filter);
+                    }
+                }
+            } else {
+                orders = PERIOD_ALL.equals(period)
+                        ? orderManager.getAllOrders()
+                        : orderManager.getOrdersBetween(monthsAgo(PERIOD_3_MONTHS.equals(period) ? 3 : 12), Long.MAX_VALUE);
+                if (!filter.isEmpty()) {
+                    orders = orders.stream()
+                        .filter(order -> filter.equals(order.getProductId()) || filter.equals(order.getCustomerName()))
+                        .collect(Collectors.toList());
+                }
+            }
             ordersData.clear();
             ordersData.addAll(orders);
         } catch (Exception e) {
@@ -321,9 +390,16 @@ public class OrdersScreen {
         }
     }
     
+    // Start of the month that began the given number of months ago, counting this month as one
+    private static long monthsAgo(int months) {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(months - 1)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
     private void loadProducts() {
         try {
-        List<Product> products = inventoryManager.getProducts();
+            // Only the best matches for the typed text, so large catalogs don't flood the list
+            List<Product> products = inventoryManager.suggestProducts(productSearchField.getText(), PRODUCT_PICKER_LIMIT);
             productComboBox.getItems().clear();
             productComboBox.getItems().addAll(products);
             productComboBox.setPromptText("Choose a product...");
@@ -378,13 +454,21 @@ public class OrdersScreen {
                 InventoryManagementApp.showError("Validation Error", "Insufficient stock", "Available stock: " + selectedProduct.getQuantity());
                 return;
             }
-            double totalAmount = selectedProduct.getPrice() * quantity;
-            String orderId = "O" + String.format("%03d", orderManager.getOrders().size() + 1);
-            Order order = new Order(orderId, selectedProduct.getId(), quantity, totalAmount, customerField.getText().trim());
-            orderManager.addOrder(order);
-            int newQuantity = selectedProduct.getQuantity() - quantity;
-            selectedProduct.setQuantity(newQuantity);
-            inventoryManager.updateProduct(selectedProduct);
+            // Hold the stock first so another terminal can't sell the same units
+            if (!inventoryManager.tryReserveStock(selectedProduct.getId(), quantity)) {
+                InventoryManagementApp.showError("Validation Error", "Insufficient stock", "Available stock: " + inventoryManager.getAvailableStock(selectedProduct.getId()));
+                return;
+            }
+            try {
+                double totalAmount = selectedProduct.getPrice() * quantity;
+                String orderId = orderManager.generateOrderId();
+                Order order = new Order(orderId, selectedProduct.getId(), quantity, totalAmount, customerField.getText().trim());
+                orderManager.addOrder(order);
+            } catch (RuntimeException ex) {
+                inventoryManager.releaseStock(selectedProduct.getId(), quantity);
+                throw ex;
+            }
+            int newQuantity = inventoryManager.commitStock(selectedProduct.getId(), quantity);
             loadOrders();
             loadProducts();
             statusLabel.setText("Order created successfully!");
@@ -399,6 +483,28 @@ public class OrdersScreen {
         }
     }
     
+    // A CSV of productId,quantity,customer[,orderId] lines, added as one all-or-nothing batch
+    private void importOrders() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Orders");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(root.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            int imported = orderManager.importOrders(file);
+            loadOrders();
+            loadProducts();
+            statusLabel.setText("Imported " + imported + " orders from " + file.getName());
+            statusLabel.setStyle("-fx-text-fill: #27ae60;");
+        } catch (IOException ex) {
+            InventoryManagementApp.showError("Error", "Failed to read " + file.getName(), ex.getMessage());
+        } catch (Exception ex) {
+            InventoryManagementApp.showError("Error", "Failed to import orders", "No orders were imported. " + ex.getMessage());
+        }
+    }
+    
     private void processSale() {
         try {
             Product selectedProduct = productComboBox.getValue();
@@ -426,7 +532,7 @@ public class OrdersScreen {
                 }
                 
             // Process direct sale - adjust based on actual implementation
-            String orderId = "O" + String.format("%03d", orderManager.getOrders().size() + 1);
+            String orderId = orderManager.generateOrderId();
             Order order = new Order(orderId, selectedProduct.getId(), quantity, selectedProduct.getPrice() * quantity, "Guest");
             orderManager.addOrder(order);
             
@@ -450,18 +556,26 @@ public class OrdersScreen {
             double totalAmount = product.getPrice() * quantity;
             
             // Generate order ID (using OrderManager's pattern)
-            String orderId = "O" + String.format("%03d", orderManager.getOrders().size() + 1);
+            String orderId = orderManager.generateOrderId();
+            
+            // Reserve the stock before recording the order
+            if (!inventoryManager.tryReserveStock(product.getId(), quantity)) {
+                throw new IllegalArgumentException("Insufficient stock. Available: " + inventoryManager.getAvailableStock(product.getId()));
+            }
             
             // Create order
             Order order = new Order(orderId, product.getId(), quantity, totalAmount, customerField.getText().trim());
             
             // Add order to OrderManager
-            orderManager.addOrder(order);
+            try {
+                orderManager.addOrder(order);
+            } catch (RuntimeException e) {
+                inventoryManager.releaseStock(product.getId(), quantity);
+                throw e;
+            }
             
-            // Update stock in InventoryManager
-            int newQuantity = product.getQuantity() - quantity;
-            product.setQuantity(newQuantity);
-            inventoryManager.updateProduct(product);
+            // Take the reserved stock in InventoryManager
+            int newQuantity = inventoryManager.commitStock(product.getId(), quantity);
             
             // Show success message
             InventoryManagementApp.showInfo("Order Created", "Success", 
@@ -486,9 +600,7 @@ public class OrdersScreen {
             double totalAmount = product.getPrice() * quantity;
             
             // Update stock directly (no order created)
-            int newQuantity = product.getQuantity() - quantity;
-            product.setQuantity(newQuantity);
-            inventoryManager.updateProduct(product);
+            int newQuantity = inventoryManager.adjustStock(product.getId(), -quantity);
             
             // Show success message
             InventoryManagementApp.showInfo("Sale Processed", "Success", 
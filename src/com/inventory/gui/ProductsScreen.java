@@ -124,6 +124,14 @@ public class ProductsScreen {
         searchContainer.getChildren().addAll(searchTitle, searchBox);
         root.getChildren().add(searchContainer);
         
+        // Ranked name/ID completions; picking one runs the search for it
+        SuggestionPopup.attach(searchField, inventoryManager::suggestProducts,
+            product -> product.getId() + " - " + product.getName(),
+            product -> {
+                searchField.setText(product.getName());
+                searchBtn.fire();
+            });
+        
         // Search functionality
         searchBtn.setOnAction(e -> {
             String searchTerm = searchField.getText().toLowerCase();
@@ -131,10 +139,7 @@ public class ProductsScreen {
                 loadProducts();
             } else {
                 // Filter products based on search term
-                List<Product> filteredProducts = inventoryManager.getProducts().stream()
-                    .filter(p -> p.getName().toLowerCase().contains(searchTerm) || 
-                                p.getId().toLowerCase().contains(searchTerm))
-                    .collect(java.util.stream.Collectors.toList());
+                List<Product> filteredProducts = inventoryManager.searchProducts(searchTerm, true);
                 
                 productTable.getItems().clear();
                 productTable.getItems().addAll(filteredProducts);
@@ -242,6 +247,11 @@ public class ProductsScreen {
         formGrid.add(createFormLabel("🏢 Supplier ID:"), 0, 4);
         formGrid.add(supplierIdField, 1, 4);
         
+        // Look suppliers up by name and fill in their ID
+        SuggestionPopup.attach(supplierIdField, InventoryManagementApp.getSupplierManager()::suggestSuppliers,
+            supplier -> supplier.getId() + " - " + supplier.getName(),
+            supplier -> supplierIdField.setText(supplier.getId()));
+        
         formContainer.getChildren().addAll(formTitle, formGrid);
         root.getChildren().add(formContainer);
 
@@ -569,13 +579,9 @@ public class ProductsScreen {
                 return;
             }
             
-            selectedProduct.setName(name);
-            selectedProduct.setPrice(price);
-            selectedProduct.setQuantity(quantity);
-            selectedProduct.setReorderLevel(reorderLevel);
-            selectedProduct.setSupplierId(supplierId);
-            
-            inventoryManager.updateProduct(selectedProduct);
+            // The table rows are shared read-only copies, so the edit goes in as a new Product
+            Product updatedProduct = new Product(selectedProduct.getId(), name, price, quantity, reorderLevel, supplierId);
+            inventoryManager.updateProduct(updatedProduct);
             InventoryManagementApp.showInfo("Update Product", "Product Updated", "Product successfully updated.");
             
             clearForm();
@@ -18,6 +18,10 @@ import java.util.List;
 import javafx.scene.layout.Priority;
 
 public class ReportsScreen {
+    // Products listed in the low stock report dialog; the rest are summarized
+    private static final int LOW_STOCK_REPORT_LIMIT = 25;
+    private static final int SALES_HISTORY_MONTHS = 12;
+    
     private final InventoryManagementApp app;
     private final VBox root;
     private final ReportManager reportManager;
@@ -91,11 +95,15 @@ public class ReportsScreen {
         Button lowStockReportBtn = createReportButton("⚠️ Low Stock Report", "Identify items needing reorder", "#DDA0DD", "#F7DC6F");
         lowStockReportBtn.setOnAction(e -> generateLowStockReport());
         
+        Button productSalesReportBtn = createReportButton("🔎 Product Sales Report", "Sales of a single product", "#F7B267", "#4ECDC4");
+        productSalesReportBtn.setOnAction(e -> generateProductSalesReport());
+        
         // Add buttons to grid
         reportsGrid.add(inventoryReportBtn, 0, 0);
         reportsGrid.add(salesReportBtn, 1, 0);
         reportsGrid.add(supplierReportBtn, 0, 1);
         reportsGrid.add(lowStockReportBtn, 1, 1);
+        reportsGrid.add(productSalesReportBtn, 0, 2);
         
         reportsContainer.getChildren().addAll(reportsTitle, reportsGrid);
         root.getChildren().add(reportsContainer);
@@ -309,15 +317,42 @@ public class ReportsScreen {
     }
     
     private void generateSalesReport() {
-        InventoryManagementApp.showInfo("Report", "Sales Report", "Sales report generated.");
+        String report = reportManager.getSalesSummaryText() + "\n" + reportManager.getSalesHistoryText(SALES_HISTORY_MONTHS);
+        InventoryManagementApp.showInfo("Report", "Sales Report", report);
     }
     
     private void generateSupplierReport() {
-        InventoryManagementApp.showInfo("Report", "Supplier Report", "Supplier report generated.");
+        String summary = reportManager.getSupplierSummaryText(InventoryManagementApp.getSupplierManager().getSuppliers());
+        InventoryManagementApp.showInfo("Report", "Supplier Report", summary);
     }
     
     private void generateLowStockReport() {
-        InventoryManagementApp.showInfo("Report", "Low Stock Report", "Low stock report generated.");
+        int lowStockCount = inventoryManager.getLowStockCount();
+        if (lowStockCount == 0) {
+            InventoryManagementApp.showInfo("Report", "Low Stock Report", "All products have sufficient stock levels.");
+            return;
+        }
+        
+        // Most urgent products first, straight from the low-stock index
+        StringBuilder content = new StringBuilder();
+        for (com.inventory.models.Product product : inventoryManager.getLowStockProducts(LOW_STOCK_REPORT_LIMIT)) {
+            content.append(String.format("%s - %s: %d (reorder at %d)\n",
+                product.getId(), product.getName(), product.getQuantity(), product.getReorderLevel()));
+        }
+        if (lowStockCount > LOW_STOCK_REPORT_LIMIT) {
+            content.append("... and ").append(lowStockCount - LOW_STOCK_REPORT_LIMIT).append(" more\n");
+        }
+        content.append("\nTotal Low Stock Products: ").append(lowStockCount);
+        InventoryManagementApp.showInfo("Report", "Low Stock Report", content.toString());
+    }
+    
+    private void generateProductSalesReport() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Report");
+        dialog.setHeaderText("Product Sales Report");
+        dialog.setContentText("Product ID:");
+        dialog.showAndWait().map(String::trim).filter(id -> !id.isEmpty()).ifPresent(productId ->
+            InventoryManagementApp.showInfo("Report", "Product Sales Report", reportManager.getProductSalesText(productId)));
     }
     
     private void exportLowStockData() {
@@ -0,0 +1,88 @@
+package com.inventory.gui;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+/**
+ * Autocomplete dropdown for a text field.
+ * Suggestions come from a manager's prefix index and are refreshed on every keystroke.
+ */
+public class SuggestionPopup<T> {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final TextField field;
+    private final ContextMenu menu = new ContextMenu();
+    private final BiFunction<String, Integer, List<T>> suggest;
+    private final Function<T, String> label;
+    private final Consumer<T> onPick;
+    private boolean picking;
+
+    private SuggestionPopup(TextField field, BiFunction<String, Integer, List<T>> suggest,
+                            Function<T, String> label, Consumer<T> onPick) {
+        this.field = field;
+        this.suggest = suggest;
+        this.label = label;
+        this.onPick = onPick;
+    }
+
+    /**
+     * Show ranked suggestions under a text field while the user types
+     * @param field The text field to attach to
+     * @param suggest Lookup taking the typed text and a result limit
+     * @param label How a suggestion is shown in the list
+     * @param onPick Called when the user picks a suggestion
+     */
+    public static <T> SuggestionPopup<T> attach(TextField field, BiFunction<String, Integer, List<T>> suggest,
+                                                Function<T, String> label, Consumer<T> onPick) {
+        SuggestionPopup<T> popup = new SuggestionPopup<>(field, suggest, label, onPick);
+        field.textProperty().addListener((obs, oldText, newText) -> popup.refresh(newText));
+        field.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
+            if (!isFocused) {
+                popup.menu.hide();
+            }
+        });
+        return popup;
+    }
+
+    private void refresh(String text) {
+        // Text set by code (form loading, picks) while the user is elsewhere doesn't open the list
+        if (picking || !field.isFocused() || text == null || text.trim().isEmpty()) {
+            menu.hide();
+            return;
+        }
+
+        List<T> suggestions = suggest.apply(text, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            menu.hide();
+            return;
+        }
+
+        menu.getItems().clear();
+        for (T suggestion : suggestions) {
+            CustomMenuItem item = new CustomMenuItem(new Label(label.apply(suggestion)), true);
+            item.setOnAction(e -> pick(suggestion));
+            menu.getItems().add(item);
+        }
+        if (!menu.isShowing()) {
+            menu.show(field, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void pick(T suggestion) {
+        picking = true; // Don't reopen the list for the text the pick writes into the field
+        try {
+            onPick.accept(suggestion);
+        } finally {
+            picking = false;
+        }
+        menu.hide();
+    }
+}
@@ -11,7 +11,9 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import com.inventory.models.Product;
 import com.inventory.models.Supplier;
+import com.inventory.managers.InventoryManager;
 import com.inventory.managers.SupplierManager;
 import com.inventory.managers.UserManager;
 import java.util.List;
@@ -26,6 +28,7 @@ public class SuppliersScreen {
     private TableView<Supplier> suppliersTable;
     private ObservableList<Supplier> suppliersData;
     private SupplierManager supplierManager;
+    private InventoryManager inventoryManager;
     private UserManager userManager;
     
     // Form fields
@@ -35,6 +38,7 @@ public class SuppliersScreen {
     public SuppliersScreen(InventoryManagementApp app) {
         this.app = app;
         this.supplierManager = InventoryManagementApp.getSupplierManager();
+        this.inventoryManager = InventoryManagementApp.getInventoryManager();
         this.userManager = InventoryManagementApp.getUserManager();
 
         // Initialize data
@@ -103,7 +107,11 @@ public class SuppliersScreen {
         TableColumn<Supplier, String> contactCol = new TableColumn<>("📞 Contact Info");
         contactCol.setCellValueFactory(new PropertyValueFactory<>("contactInfo"));
         contactCol.setPrefWidth(250);
-        suppliersTable.getColumns().addAll(idCol, nameCol, contactCol);
+        TableColumn<Supplier, Integer> productsCol = new TableColumn<>("📦 Products");
+        productsCol.setCellValueFactory(cellData -> new javafx.beans.property.SimpleIntegerProperty(
+            inventoryManager.countProductsBySupplier(cellData.getValue().getId())).asObject());
+        productsCol.setPrefWidth(100);
+        suppliersTable.getColumns().addAll(idCol, nameCol, contactCol, productsCol);
         suppliersTable.setRowFactory(tv -> {
             TableRow<Supplier> row = new TableRow<>();
             row.selectedProperty().addListener((obs, wasSelected, isNowSelected) -> {
@@ -190,7 +198,12 @@ public class SuppliersScreen {
         clearBtn.setTextFill(Color.DARKSLATEGRAY);
         clearBtn.setBackground(new Background(new BackgroundFill(Color.LIGHTGRAY, new CornerRadii(25), Insets.EMPTY)));
         clearBtn.setOnAction(e -> clearForm());
-        buttonBox.getChildren().addAll(addBtn, updateBtn, deleteBtn, clearBtn);
+        Button productsBtn = new Button("📦 View Products");
+        productsBtn.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+        productsBtn.setTextFill(Color.DARKSLATEGRAY);
+        productsBtn.setBackground(new Background(new BackgroundFill(Color.LIGHTYELLOW, new CornerRadii(25), Insets.EMPTY)));
+        productsBtn.setOnAction(e -> showSupplierProducts());
+        buttonBox.getChildren().addAll(addBtn, updateBtn, deleteBtn, clearBtn, productsBtn);
         buttonContainer.getChildren().addAll(buttonTitle, buttonBox);
         root.getChildren().add(buttonContainer);
     }
@@ -322,6 +335,28 @@ public class SuppliersScreen {
             });
     }
     
+    private void showSupplierProducts() {
+        Supplier selectedSupplier = suppliersTable.getSelectionModel().getSelectedItem();
+        if (selectedSupplier == null) {
+            InventoryManagementApp.showWarning("No Selection", "No supplier selected", "Please select a supplier to view its products.");
+            return;
+        }
+        
+        List<Product> products = inventoryManager.getProductsBySupplier(selectedSupplier.getId());
+        if (products.isEmpty()) {
+            InventoryManagementApp.showInfo("Supplier Products", selectedSupplier.getName(), "No products are supplied by this supplier.");
+            return;
+        }
+        
+        StringBuilder content = new StringBuilder();
+        for (Product product : products) {
+            content.append(String.format("%s - %s (Qty: %d, $%.2f)\n",
+                product.getId(), product.getName(), product.getQuantity(), product.getPrice()));
+        }
+        content.append("\nTotal products: ").append(products.size());
+        InventoryManagementApp.showInfo("Supplier Products", selectedSupplier.getName(), content.toString());
+    }
+    
     private void applyCurrentTheme() {
         String theme = InventoryManagementApp.getCurrentTheme();
         boolean isDark = "dark".equals(theme);
@@ -0,0 +1,63 @@
+package com.inventory.managers;
+
+/**
+ * Inner loops of the inventory aggregates, over the arrays of ProductColumns.
+ *
+ * Every kernel works on the slots [from, to) so callers can split a scan into
+ * chunks. The SIMD implementation needs the jdk.incubator.vector module; when
+ * it is not available (or -Dinventory.kernels=scalar is set) the plain loops
+ * are used instead. Counts and unit totals are identical either way; the
+ * value sum adds lanes in a different order than the scalar loop, so the two
+ * can differ in the last bits of rounding (well below a cent for any real
+ * inventory).
+ */
+interface AggregationKernels {
+
+    /**
+     * Sum of price * quantity
+     */
+    double totalValue(double[] prices, int[] quantities, int from, int to);
+
+    /**
+     * Sum of quantities
+     */
+    long totalUnits(int[] quantities, int from, int to);
+
+    /**
+     * Number of slots whose quantity is at or below the reorder level
+     */
+    int countLowStock(int[] quantities, int[] reorderLevels, int from, int to);
+
+    /**
+     * Number of slots with no stock
+     */
+    int countOutOfStock(int[] quantities, int from, int to);
+
+    /**
+     * Write the slots whose price is in [minPrice, maxPrice] into positions, in slot order
+     * @return The number of slots written
+     */
+    int filterPriceRange(double[] prices, int from, int to, double minPrice, double maxPrice, int[] positions);
+
+    /**
+     * Short name for logs and reports
+     */
+    String name();
+
+    /**
+     * Pick the fastest implementation this JVM supports
+     */
+    static AggregationKernels select() {
+        if (!"scalar".equalsIgnoreCase(System.getProperty("inventory.kernels"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded by name so a JVM without the module never links against it
+                return (AggregationKernels) Class.forName("com.inventory.managers.VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("⚠ Vector kernels unavailable, using scalar loops: " + e);
+            }
+        }
+        return new ScalarKernels();
+    }
+}
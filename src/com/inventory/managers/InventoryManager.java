@@ -2,17 +2,47 @@ package com.inventory.managers;
 
 import java.util.*;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import com.inventory.models.Product;
+import com.inventory.models.ProductNameRef;
 import com.inventory.DataStore;
+import com.inventory.JournalEntry;
+import com.inventory.PersistenceService;
+import com.inventory.SequenceService;
 
 public class InventoryManager {
+    // Rewrite the full snapshot once this many mutations have been journaled
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 500;
+    
     private List<Product> products;
-    private int productIdCounter;
+    private final Map<String, Integer> positionsById = new HashMap<>(); // Product ID -> index in products
+    private final SupplierIndex supplierIndex = new SupplierIndex();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final PrefixIndex completionIndex = new PrefixIndex();
+    private final LowStockIndex lowStockIndex = new LowStockIndex();
+    private final StockLedger stockLedger = new StockLedger();
+    private final ProductColumns columns = new ProductColumns(); // Numeric fields by position, for aggregates
+    private final ProductNames productNames = new ProductNames(); // Current names, shared with order rows
+    // Read side: a shared snapshot, rebuilt at most once per batch of writes
+    private final AtomicLong version = new AtomicLong();
+    private long structureVersion; // Guarded by this; changes when products are added, replaced or removed
+    private final Object snapshotLock = new Object(); // Orders snapshot publication only, never held while copying
+    private volatile ProductSnapshot snapshot = new ProductSnapshot(0, 0, Collections.emptyList());
+    private final StripedLocks stockLocks = new StripedLocks(Runtime.getRuntime().availableProcessors() * 16);
+    private final SequenceService.Sequence productIds;
+    private final AtomicInteger journaledMutations = new AtomicInteger();
+    private final PersistenceService persistence;
     
     public InventoryManager() {
         this.products = new ArrayList<>();
-        this.productIdCounter = 1;
+        this.persistence = PersistenceService.getInstance();
+        persistence.register(DataStore.PRODUCTS_FILE, this::snapshotProducts);
         loadProducts();
+        // Records are only scanned for a seed the first time the sequence is used
+        this.productIds = SequenceService.getInstance().sequence("product",
+                () -> SequenceService.nextNumberAfter(products, Product::getId));
     }
     
     // Product Management Methods
@@ -76,7 +106,7 @@ public class InventoryManager {
         }
         
         // Generate product ID
-        String id = "P" + String.format("%03d", productIdCounter++);
+        String id = productIds.nextId("P");
         
         // Get supplier ID (optional)
         System.out.print("Enter supplier ID (or press Enter to skip): ");
@@ -84,7 +114,7 @@ public class InventoryManager {
         
         // Create and add product
         Product product = new Product(id, name, price, quantity, reorderLevel, supplierId);
-        products.add(product);
+        putProduct(product);
         
         System.out.println("Product added successfully! Product ID: " + id);
     }
@@ -203,6 +233,7 @@ public class InventoryManager {
             product.setSupplierId(supplierId);
             System.out.println("Supplier ID updated to: " + supplierId);
         }
+        updateProduct(product);
         
         System.out.println("Product updated successfully!");
     }
@@ -238,7 +269,7 @@ public class InventoryManager {
         String confirm = scanner.nextLine().trim().toLowerCase();
         
         if (confirm.equals("y") || confirm.equals("yes")) {
-            products.remove(product);
+            removeProduct(id);
             System.out.println("Product deleted successfully!");
         } else {
             System.out.println("Deletion cancelled.");
@@ -255,13 +286,14 @@ public class InventoryManager {
         }
         
         // Print header
+        System.out.println("Products at or below reorder level: " + getLowStockCount());
         System.out.printf("%-10s %-20s %-10s %-15s %-10s%n", 
                          "ID", "Name", "Quantity", "Reorder Level", "Status");
         System.out.println("------------------------------------------------------------");
         
         // Print each product with status
         for (Product product : products) {
-            String status = product.getQuantity() <= product.getReorderLevel() ? "LOW STOCK" : "OK";
+            String status = lowStockIndex.contains(product.getId()) ? "LOW STOCK" : "OK";
             System.out.printf("%-10s %-20s %-10d %-15d %-10s%n",
                              product.getId(), 
                              product.getName(), 
@@ -308,8 +340,7 @@ public class InventoryManager {
         }
         
         // Update stock
-        int newQuantity = product.getQuantity() + quantityToAdd;
-        product.setQuantity(newQuantity);
+        int newQuantity = adjustStock(id, quantityToAdd);
         
         System.out.println("Stock updated successfully. New quantity: " + newQuantity);
     }
@@ -354,8 +385,7 @@ public class InventoryManager {
         }
         
         // Update stock
-        int newQuantity = product.getQuantity() - quantityToRemove;
-        product.setQuantity(newQuantity);
+        int newQuantity = adjustStock(id, -quantityToRemove);
         
         System.out.println("Stock updated successfully. New quantity: " + newQuantity);
     }
@@ -398,23 +428,192 @@ public class InventoryManager {
         
         // Update reorder level
         product.setReorderLevel(newReorderLevel);
+        updateProduct(product);
         
         System.out.println("Reorder level updated successfully. New reorder level: " + newReorderLevel);
     }
     
-    // Helper method to find product by ID
-    public Product findProductById(String id) {
-        for (Product product : products) {
-            if (product.getId().equals(id)) {
-                return product;
+    /**
+     * Find a product by ID. The result is a copy: edit it and pass it to updateProduct.
+     */
+    public synchronized Product findProductById(String id) {
+        Product product = liveProduct(id);
+        return product == null ? null : copyOf(product);
+    }
+    
+    // The stored product itself, for changes made by the manager; caller holds the lock
+    private Product liveProduct(String id) {
+        Integer position = positionsById.get(id);
+        return position == null ? null : products.get(position);
+    }
+    
+    // Insert a product, or replace the product with the same ID in place
+    private void putProduct(Product product) {
+        structureVersion++;
+        version.incrementAndGet();
+        Integer position = positionsById.get(product.getId());
+        if (position != null) {
+            products.set(position, product);
+        } else {
+            position = products.size();
+            positionsById.put(product.getId(), position);
+            products.add(product);
+        }
+        indexProduct(position, product);
+    }
+    
+    // Remove a product by moving the last product into its slot, so no other positions shift
+    private Product removeProduct(String id) {
+        Integer position = positionsById.remove(id);
+        if (position == null) {
+            return null;
+        }
+        structureVersion++;
+        version.incrementAndGet();
+        Product removed = products.get(position);
+        Product last = products.remove(products.size() - 1);
+        if (last != removed) {
+            products.set(position, last);
+            positionsById.put(last.getId(), position);
+        }
+        supplierIndex.remove(id);
+        priceIndex.removeSwap(position);
+        columns.removeSwap(position);
+        nameIndex.removeSwap(position);
+        completionIndex.remove(id);
+        // Under the counter's lock, so a stock change being published either lands before this or sees removed
+        StockLedger.Counter counter = stockLedger.counter(id);
+        if (counter != null) {
+            synchronized (counter) {
+                counter.removed = true;
+                lowStockIndex.remove(id);
+                stockLedger.remove(id);
+            }
+        } else {
+            lowStockIndex.remove(id);
+        }
+        productNames.remove(id);
+        return removed;
+    }
+    
+    // Bring the secondary indexes up to date after a product was added or edited
+    private void indexProduct(int position, Product product) {
+        supplierIndex.index(product.getId(), product.getSupplierId());
+        priceIndex.set(position, product.getPrice());
+        columns.set(position, product, stockLedger.set(product));
+        nameIndex.set(position, product.getName(), product.getId());
+        completionIndex.put(product.getId(), product.getName(), product.getId());
+        lowStockIndex.update(product.getId(), product.getQuantity(), product.getReorderLevel());
+        productNames.rename(product.getId(), product.getName());
+    }
+    
+    // Rebuild all indexes after the list was replaced; a later duplicate ID replaces the earlier one
+    private void rebuildIndex() {
+        structureVersion++;
+        version.incrementAndGet();
+        List<Product> loaded = products;
+        products = new ArrayList<>(loaded.size());
+        positionsById.clear();
+        for (Product product : loaded) {
+            Integer position = positionsById.putIfAbsent(product.getId(), products.size());
+            if (position != null) {
+                products.set(position, product);
+            } else {
+                products.add(product);
             }
         }
-        return null;
+        
+        // Sorted indexes are built in bulk rather than one insert at a time
+        supplierIndex.clear();
+        completionIndex.clear();
+        lowStockIndex.clear();
+        stockLedger.clear();
+        double[] prices = new double[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            supplierIndex.index(product.getId(), product.getSupplierId());
+            completionIndex.put(product.getId(), product.getName(), product.getId());
+            lowStockIndex.update(product.getId(), product.getQuantity(), product.getReorderLevel());
+            stockLedger.set(product);
+            prices[i] = product.getPrice();
+        }
+        priceIndex.load(prices, prices.length);
+        columns.load(products, stockLedger);
+        nameIndex.load(products);
+        productNames.load(products);
     }
     
     // Getter method to access products list for reports
     public List<Product> getProducts() {
-        return new ArrayList<>(products);
+        return getSnapshot().getProducts();
+    }
+    
+    /**
+     * Get the current product snapshot: copies of every product, shared by all readers
+     * until the next change. The first read after a batch of writes builds a new one;
+     * the manager lock is held only while the list of live products is copied.
+     */
+    public ProductSnapshot getSnapshot() {
+        ProductSnapshot current = snapshot;
+        long latest = version.get();
+        if (current.getVersion() == latest) {
+            return current;
+        }
+        Product[] live;
+        long structure;
+        synchronized (this) {
+            live = products.toArray(new Product[0]);
+            structure = structureVersion;
+        }
+        
+        // While the membership is unchanged position i holds the same Product, so unedited copies are kept.
+        // Stock changes may land while copying; the copies are then newer than latest, never older.
+        boolean sameList = structure == current.getStructureVersion();
+        List<Product> previous = current.getProducts();
+        List<Product> copies = new ArrayList<>(live.length);
+        for (int i = 0; i < live.length; i++) {
+            Product copy = sameList ? previous.get(i) : null;
+            copies.add(copy != null && sameValues(copy, live[i]) ? copy : copyOf(live[i]));
+        }
+        ProductSnapshot built = new ProductSnapshot(latest, structure, Collections.unmodifiableList(copies));
+        
+        // A slower reader must not replace a newer snapshot
+        synchronized (snapshotLock) {
+            if (snapshot.getVersion() < latest) {
+                snapshot = built;
+            }
+        }
+        return built;
+    }
+    
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getPrice(), product.getQuantity(),
+                           product.getReorderLevel(), product.getSupplierId());
+    }
+    
+    private static boolean sameValues(Product copy, Product product) {
+        return copy.getQuantity() == product.getQuantity()
+                && copy.getPrice() == product.getPrice()
+                && copy.getReorderLevel() == product.getReorderLevel()
+                && Objects.equals(copy.getName(), product.getName())
+                && Objects.equals(copy.getSupplierId(), product.getSupplierId());
+    }
+    
+    /**
+     * Get the shared name reference of a product ID. It follows renames and reads
+     * "Unknown" while no product has the ID, so orders can keep it instead of
+     * looking the product up.
+     */
+    public ProductNameRef getProductNameRef(String productId) {
+        return productNames.ref(productId);
+    }
+    
+    /**
+     * Resolve the current names of many products at once, e.g. for a report.
+     * Unknown IDs map to "Unknown"; the product list is not scanned.
+     */
+    public Map<String, String> resolveProductNames(Collection<String> productIds) {
+        return productNames.names(productIds);
     }
     
     // Data Persistence Methods
@@ -422,39 +621,66 @@ public class InventoryManager {
         List<Product> loadedProducts = DataStore.loadData(DataStore.PRODUCTS_FILE);
         if (loadedProducts != null) {
             this.products = loadedProducts;
-            // Update product ID counter to avoid conflicts
-            updateProductIdCounter();
             System.out.println("✓ Loaded " + products.size() + " products from storage");
         } else {
             System.out.println("ℹ Starting with empty product inventory");
         }
+        rebuildIndex();
+        
+        // Replay mutations recorded since the last snapshot
+        List<JournalEntry> entries = DataStore.readJournal(DataStore.PRODUCTS_FILE);
+        for (JournalEntry entry : entries) {
+            replayJournalEntry(entry);
+        }
+        if (!entries.isEmpty()) {
+            System.out.println("✓ Replayed " + entries.size() + " journaled product changes");
+            // Compact right away: the next write is a snapshot that resets the journal,
+            // so no append ever depends on how the replayed journal ended
+            saveProducts();
+        }
     }
     
-    public void saveProducts() {
-        boolean success = DataStore.saveData(DataStore.PRODUCTS_FILE, products);
-        if (success) {
-            System.out.println("✓ Product inventory saved successfully");
-        } else {
-            System.err.println("✗ Failed to save product inventory");
+    private void replayJournalEntry(JournalEntry entry) {
+        switch (entry.getOperation()) {
+            case ADD:
+            case UPDATE:
+                putProduct(entry.getPayload());
+                break;
+            case DELETE:
+                removeProduct(entry.getKey());
+                break;
+            case STOCK_DELTA:
+                Product stocked = liveProduct(entry.getKey());
+                if (stocked != null) {
+                    stocked.setQuantity(entry.getQuantity());
+                    lowStockIndex.update(stocked.getId(), stocked.getQuantity(), stocked.getReorderLevel());
+                    stockLedger.set(stocked);
+                    version.incrementAndGet();
+                }
+                break;
         }
     }
     
-    private void updateProductIdCounter() {
-        if (!products.isEmpty()) {
-            // Find the highest product ID number and set counter accordingly
-            int maxId = 0;
-            for (Product product : products) {
-                try {
-                    String idStr = product.getId().substring(1); // Remove 'P' prefix
-                    int idNum = Integer.parseInt(idStr);
-                    if (idNum > maxId) {
-                        maxId = idNum;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip invalid IDs
-                }
-            }
-            this.productIdCounter = maxId + 1;
+    /**
+     * Queue a full snapshot of the inventory, which also discards the journal it supersedes.
+     * The snapshot is written in the background by the PersistenceService.
+     * Not synchronized: publishStock compacts from here while holding a counter lock.
+     */
+    public void saveProducts() {
+        journaledMutations.set(0);
+        persistence.markDirty(DataStore.PRODUCTS_FILE);
+    }
+    
+    // Data the persistence thread writes into a snapshot; the shared read snapshot, no extra copy
+    private List<Product> snapshotProducts() {
+        return getSnapshot().getProducts();
+    }
+    
+    // Queue one mutation for the product journal, compacting into a snapshot periodically
+    private void journal(JournalEntry entry) {
+        persistence.appendJournal(DataStore.PRODUCTS_FILE, entry);
+        if (journaledMutations.incrementAndGet() >= JOURNAL_COMPACTION_THRESHOLD) {
+            saveProducts();
         }
     }
     
@@ -507,16 +733,26 @@ public class InventoryManager {
             return;
         }
         
-        List<Product> results = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getName().toLowerCase().contains(searchTerm)) {
-                results.add(product);
-            }
-        }
+        List<Product> results = searchProducts(searchTerm, false);
         
         displaySearchResults(results, "Name Search: '" + searchTerm + "'");
     }
     
+    /**
+     * Case-insensitive substring search over product names, using the trigram index
+     * @param term The text to look for
+     * @param matchIds true to also match product IDs
+     * @return The matching products, in list order
+     */
+    public synchronized List<Product> searchProducts(String term, boolean matchIds) {
+        int[] positions = nameIndex.search(term, matchIds);
+        List<Product> results = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            results.add(copyOf(products.get(position)));
+        }
+        return results;
+    }
+    
     private void searchByPriceRange(Scanner scanner) {
         double minPrice = -1;
         double maxPrice = -1;
@@ -549,14 +785,54 @@ public class InventoryManager {
             }
         }
         
-        List<Product> results = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getPrice() >= minPrice && product.getPrice() <= maxPrice) {
-                results.add(product);
-            }
-        }
+        List<Product> results = getProductsInPriceRange(minPrice, maxPrice);
         
         displaySearchResults(results, "Price Range: $" + minPrice + " - $" + maxPrice);
+        if (!results.isEmpty()) {
+            InventoryTotals totals = getInventoryTotals(minPrice, maxPrice);
+            System.out.printf("Stock in range: %d items worth $%.2f (%d low on stock)%n",
+                             totals.getTotalItems(), totals.getTotalValue(), totals.getLowStockCount());
+        }
+    }
+    
+    /**
+     * Get the products priced within [minPrice, maxPrice], cheapest first, using the price index
+     */
+    public synchronized List<Product> getProductsInPriceRange(double minPrice, double maxPrice) {
+        int[] positions = priceIndex.range(minPrice, maxPrice);
+        List<Product> results = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            results.add(copyOf(products.get(position)));
+        }
+        return results;
+    }
+    
+    /**
+     * Suggest products whose name or ID starts with the typed text (GUI autocomplete)
+     * @param prefix The text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching products, best match first
+     */
+    public synchronized List<Product> suggestProducts(String prefix, int limit) {
+        List<String> ids = completionIndex.complete(prefix, limit);
+        List<Product> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            results.add(copyOf(products.get(positionsById.get(id))));
+        }
+        return results;
+    }
+    
+    /**
+     * Get all products ordered by price, read straight from the price index
+     * @param descending true for the most expensive product first
+     */
+    public synchronized List<Product> getProductsByPrice(boolean descending) {
+        int count = priceIndex.size();
+        List<Product> results = new ArrayList<>(count);
+        for (int rank = 0; rank < count; rank++) {
+            results.add(copyOf(products.get(priceIndex.positionAt(descending ? count - 1 - rank : rank))));
+        }
+        return results;
     }
     
     private void searchBySupplierId(Scanner scanner) {
@@ -568,12 +844,7 @@ public class InventoryManager {
             return;
         }
         
-        List<Product> results = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getSupplierId().equals(supplierId)) {
-                results.add(product);
-            }
-        }
+        List<Product> results = getProductsBySupplier(supplierId);
         
         displaySearchResults(results, "Supplier ID: " + supplierId);
     }
@@ -614,52 +885,266 @@ public class InventoryManager {
             return;
         }
         
-        List<Product> results = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getSupplierId().equals(supplierId)) {
-                results.add(product);
-            }
-        }
+        List<Product> results = getProductsBySupplier(supplierId);
         
         displaySearchResults(results, "Supplier: " + supplierId);
     }
+    
+    /**
+     * Get the products supplied by a supplier, using the supplier index
+     * @param supplierId The supplier ID ("" for products without a supplier)
+     * @return The matching products, in the order they were added
+     */
+    public synchronized List<Product> getProductsBySupplier(String supplierId) {
+        Collection<String> ids = supplierIndex.productIds(supplierId);
+        List<Product> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            results.add(copyOf(products.get(positionsById.get(id))));
+        }
+        return results;
+    }
+    
+    /**
+     * Count the products supplied by a supplier without building a list
+     */
+    public synchronized int countProductsBySupplier(String supplierId) {
+        return supplierIndex.count(supplierId);
+    }
 
     // === GUI Integration Methods ===
     /**
      * Generate a new unique product ID (e.g., P001, P002, ...)
      */
     public String generateProductId() {
-        String id = "P" + String.format("%03d", productIdCounter++);
-        return id;
+        return productIds.nextId("P");
     }
 
     /**
      * Add a new product (GUI version)
+     * A copy is stored, so the caller's object stays theirs.
      */
-    public void addProduct(Product product) {
-        products.add(product);
-        saveProducts();
+    public synchronized void addProduct(Product product) {
+        putProduct(copyOf(product));
+        journal(JournalEntry.add(product.getId(), copyOf(product)));
     }
 
     /**
      * Update an existing product (GUI version)
-     * Finds the product by ID and updates its fields.
+     * Replaces the stored product with a copy of the given one; unknown IDs are ignored.
      */
-    public void updateProduct(Product updatedProduct) {
-        for (int i = 0; i < products.size(); i++) {
-            if (products.get(i).getId().equals(updatedProduct.getId())) {
-                products.set(i, updatedProduct);
-                saveProducts();
-                return;
-            }
+    public synchronized void updateProduct(Product updatedProduct) {
+        if (positionsById.containsKey(updatedProduct.getId())) {
+            putProduct(copyOf(updatedProduct));
+            journal(JournalEntry.update(updatedProduct.getId(), copyOf(updatedProduct)));
         }
     }
 
     /**
      * Delete a product by ID (GUI version)
      */
-    public void deleteProduct(String id) {
-        products.removeIf(p -> p.getId().equals(id));
-        saveProducts();
+    public synchronized void deleteProduct(String id) {
+        if (removeProduct(id) != null) {
+            journal(JournalEntry.delete(id));
+        }
+    }
+    
+    /**
+     * Change the stock of a product by a positive or negative amount (GUI version)
+     * Removals reserve and commit through the stock ledger, so concurrent callers
+     * cannot take the quantity below zero. Only the delta is journaled.
+     * @return The new quantity
+     */
+    public int adjustStock(String productId, int delta) {
+        StockLedger.Counter counter = stockLedger.counter(productId);
+        if (counter == null) {
+            throw new IllegalArgumentException("Product not found with ID: " + productId);
+        }
+        try {
+            if (delta >= 0) {
+                stockLedger.restock(productId, delta);
+            } else if (stockLedger.tryReserve(productId, -delta)) {
+                stockLedger.commit(productId, -delta);
+            } else {
+                throw new IllegalArgumentException("Insufficient stock for " + counter.product.getName() + ". Available: " + counter.available.get());
+            }
+        } catch (IllegalStateException e) {
+            // Deleted after the lookup above
+            throw new IllegalArgumentException("Product not found with ID: " + productId);
+        }
+        return publishStock(counter, delta);
+    }
+    
+    /**
+     * Apply stock changes to several products as one transaction (multi-product orders).
+     * Either every delta is applied or, if any product is unknown or short of stock,
+     * none is. Only the lock stripes of the products involved are held, taken in a
+     * fixed order, so transactions over different products run in parallel.
+     * @param deltas Product ID -> positive or negative quantity change
+     * @return Product ID -> new quantity
+     */
+    public Map<String, Integer> adjustStock(Map<String, Integer> deltas) {
+        // Visit products in ID order so every transaction works through them the same way
+        Map<String, Integer> ordered = new TreeMap<>(deltas);
+        Map<String, StockLedger.Counter> counters = new HashMap<>();
+        for (String productId : ordered.keySet()) {
+            StockLedger.Counter counter = stockLedger.counter(productId);
+            if (counter == null) {
+                throw new IllegalArgumentException("Product not found with ID: " + productId);
+            }
+            counters.put(productId, counter);
+        }
+        
+        int[] stripes = stockLocks.stripesFor(ordered.keySet());
+        stockLocks.lock(stripes);
+        try {
+            // Reserve every removal first; back out if any product is short
+            List<String> reserved = new ArrayList<>();
+            for (Map.Entry<String, Integer> delta : ordered.entrySet()) {
+                if (delta.getValue() >= 0) {
+                    continue;
+                }
+                if (!stockLedger.tryReserve(delta.getKey(), -delta.getValue())) {
+                    for (String productId : reserved) {
+                        stockLedger.release(productId, -ordered.get(productId));
+                    }
+                    StockLedger.Counter counter = counters.get(delta.getKey());
+                    throw new IllegalArgumentException("Insufficient stock for " + counter.product.getName()
+                                                       + ". Available: " + counter.available.get());
+                }
+                reserved.add(delta.getKey());
+            }
+            
+            Map<String, Integer> newQuantities = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> delta : ordered.entrySet()) {
+                String productId = delta.getKey();
+                int change = delta.getValue();
+                if (change == 0) {
+                    newQuantities.put(productId, counters.get(productId).onHand.get());
+                    continue;
+                }
+                if (change < 0) {
+                    stockLedger.commit(productId, -change);
+                } else {
+                    stockLedger.restock(productId, change);
+                }
+                newQuantities.put(productId, publishStock(counters.get(productId), change));
+            }
+            return newQuantities;
+        } finally {
+            stockLocks.unlock(stripes);
+        }
+    }
+    
+    /**
+     * Hold back stock for an order being entered; lock-free, safe to call from many threads
+     * @return false if the product is unknown or fewer than quantity units are available
+     */
+    public boolean tryReserveStock(String productId, int quantity) {
+        return stockLedger.tryReserve(productId, quantity);
+    }
+    
+    /**
+     * Complete a reservation made with tryReserveStock: the stock is removed and journaled
+     * @return The new quantity
+     */
+    public int commitStock(String productId, int quantity) {
+        StockLedger.Counter counter = stockLedger.counter(productId);
+        if (counter == null) {
+            throw new IllegalArgumentException("Product not found with ID: " + productId);
+        }
+        stockLedger.commit(productId, quantity);
+        return publishStock(counter, -quantity);
+    }
+    
+    /**
+     * Give back a reservation made with tryReserveStock when the order is abandoned
+     */
+    public void releaseStock(String productId, int quantity) {
+        stockLedger.release(productId, quantity);
+    }
+    
+    /**
+     * Get the quantity of a product that is not held by open reservations
+     */
+    public int getAvailableStock(String productId) {
+        StockLedger.Counter counter = stockLedger.counter(productId);
+        return counter == null ? 0 : counter.available.get();
+    }
+    
+    // Copy the ledger's quantity to the Product, the low-stock index and the journal.
+    // Locks only this product's counter, so the journal sees its quantities in order;
+    // the product columns read the counter themselves when they aggregate.
+    // A product deleted meanwhile is left alone, so it is neither re-indexed nor journaled after its delete.
+    private int publishStock(StockLedger.Counter counter, int delta) {
+        synchronized (counter) {
+            Product product = counter.product;
+            int quantity = counter.onHand.get();
+            if (counter.removed) {
+                return quantity;
+            }
+            product.setQuantity(quantity);
+            version.incrementAndGet();
+            lowStockIndex.update(product.getId(), quantity, product.getReorderLevel());
+            journal(JournalEntry.stockDelta(product.getId(), delta, quantity));
+            return quantity;
+        }
+    }
+    
+    /**
+     * Get stock and value totals over the whole inventory, from the product columns
+     */
+    public synchronized InventoryTotals getInventoryTotals() {
+        return columns.totals();
+    }
+    
+    /**
+     * Get stock and value totals over the products priced in [minPrice, maxPrice]
+     */
+    public synchronized InventoryTotals getInventoryTotals(double minPrice, double maxPrice) {
+        return columns.totals(minPrice, maxPrice);
+    }
+    
+    /**
+     * Get stock and value totals for every supplier in one pass over the product columns
+     * @return Totals by supplier ID; products without a supplier are under ""
+     */
+    public synchronized Map<String, InventoryTotals> getTotalsBySupplier() {
+        return columns.totalsBySupplier();
+    }
+    
+    /**
+     * Get the number of products
+     */
+    public synchronized int getProductCount() {
+        return products.size();
+    }
+    
+    /**
+     * Get the number of products at or below their reorder level, from the low-stock index
+     */
+    public synchronized int getLowStockCount() {
+        return lowStockIndex.count();
+    }
+    
+    /**
+     * Get every product at or below its reorder level, furthest below first
+     */
+    public List<Product> getLowStockProducts() {
+        return getLowStockProducts(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Get up to limit products at or below their reorder level, furthest below first
+     */
+    public synchronized List<Product> getLowStockProducts(int limit) {
+        List<String> ids = lowStockIndex.productIds(limit);
+        List<Product> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Integer position = positionsById.get(id);
+            if (position != null) {
+                results.add(copyOf(products.get(position)));
+            }
+        }
+        return results;
     }
 }
@@ -0,0 +1,54 @@
+package com.inventory.managers;
+
+/**
+ * Stock and value totals over a set of products, as computed by the InventoryManager.
+ */
+public final class InventoryTotals {
+
+    private final int productCount;
+    private final long totalItems;
+    private final double totalValue;
+    private final int lowStockCount;
+    private final int outOfStockCount;
+    private final String executionMode;
+
+    InventoryTotals(int productCount, long totalItems, double totalValue, int lowStockCount, int outOfStockCount) {
+        this(productCount, totalItems, totalValue, lowStockCount, outOfStockCount, "Sequential");
+    }
+
+    InventoryTotals(int productCount, long totalItems, double totalValue, int lowStockCount, int outOfStockCount,
+                    String executionMode) {
+        this.productCount = productCount;
+        this.totalItems = totalItems;
+        this.totalValue = totalValue;
+        this.lowStockCount = lowStockCount;
+        this.outOfStockCount = outOfStockCount;
+        this.executionMode = executionMode;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    // Products at or below their reorder level
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public int getOutOfStockCount() {
+        return outOfStockCount;
+    }
+
+    // How the totals were computed, for report metadata
+    public String getExecutionMode() {
+        return executionMode;
+    }
+}
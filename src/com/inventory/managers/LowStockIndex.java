@@ -0,0 +1,89 @@
+package com.inventory.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The set of products at or below their reorder level, kept up to date as
+ * quantities and reorder levels change.
+ *
+ * Products are grouped by deficit (reorder level minus quantity) with the
+ * largest deficit first, so the most urgent products come out in O(k) and the
+ * low-stock count is O(1). Methods are synchronized because stock commits
+ * update it without holding the InventoryManager lock.
+ */
+class LowStockIndex {
+
+    // Deficit -> product IDs, largest deficit first
+    private final TreeMap<Integer, Set<String>> idsByDeficit = new TreeMap<>(Collections.reverseOrder());
+    private final Map<String, Integer> deficitById = new HashMap<>();
+
+    /**
+     * Record the current stock of a product; adds, moves or drops it as needed
+     */
+    synchronized void update(String productId, int quantity, int reorderLevel) {
+        int deficit = reorderLevel - quantity;
+        Integer previous = deficitById.get(productId);
+        if (previous != null && previous == deficit) {
+            return;
+        }
+        if (previous != null) {
+            unlink(previous, productId);
+        }
+        if (deficit >= 0) {
+            deficitById.put(productId, deficit);
+            idsByDeficit.computeIfAbsent(deficit, key -> new LinkedHashSet<>()).add(productId);
+        } else {
+            deficitById.remove(productId);
+        }
+    }
+
+    synchronized void remove(String productId) {
+        Integer previous = deficitById.remove(productId);
+        if (previous != null) {
+            unlink(previous, productId);
+        }
+    }
+
+    synchronized void clear() {
+        idsByDeficit.clear();
+        deficitById.clear();
+    }
+
+    synchronized boolean contains(String productId) {
+        return deficitById.containsKey(productId);
+    }
+
+    synchronized int count() {
+        return deficitById.size();
+    }
+
+    /**
+     * Get up to limit low-stock product IDs, most urgent first
+     */
+    synchronized List<String> productIds(int limit) {
+        List<String> ids = new ArrayList<>(Math.min(limit, deficitById.size()));
+        for (Set<String> group : idsByDeficit.values()) {
+            for (String id : group) {
+                if (ids.size() >= limit) {
+                    return ids;
+                }
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private void unlink(int deficit, String productId) {
+        Set<String> group = idsByDeficit.get(deficit);
+        if (group != null && group.remove(productId) && group.isEmpty()) {
+            idsByDeficit.remove(deficit);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.managers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.inventory.models.Order;
+
+/**
+ * Secondary indexes on the OrderManager's order list: the positions of the
+ * orders of each product ID and of each customer name.
+ *
+ * Orders are only ever appended, so each posting list is a growable int array
+ * that stays in list order just by appending, and a lookup costs the number of
+ * matching orders. The indexes are rebuilt whenever the list is replaced (on
+ * load and when past months are archived).
+ */
+class OrderIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Postings> byProduct = new HashMap<>();
+    private final Map<String, Postings> byCustomer = new HashMap<>();
+
+    /**
+     * Index the order stored at a position; positions must be appended in order
+     */
+    void append(int position, Order order) {
+        byProduct.computeIfAbsent(key(order.getProductId()), k -> new Postings()).append(position);
+        byCustomer.computeIfAbsent(key(order.getCustomerName()), k -> new Postings()).append(position);
+    }
+
+    /**
+     * Rebuild both indexes for a new order list
+     */
+    void load(List<Order> orders) {
+        byProduct.clear();
+        byCustomer.clear();
+        for (int i = 0; i < orders.size(); i++) {
+            append(i, orders.get(i));
+        }
+    }
+
+    /**
+     * Positions of the orders of a product, in list order
+     */
+    int[] productPositions(String productId) {
+        return positions(byProduct, productId);
+    }
+
+    /**
+     * Positions of the orders of a customer, in list order
+     */
+    int[] customerPositions(String customerName) {
+        return positions(byCustomer, customerName);
+    }
+
+    private static int[] positions(Map<String, Postings> index, String key) {
+        Postings postings = index.get(key(key));
+        return postings == null ? NONE : Arrays.copyOf(postings.items, postings.size);
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Growable list of positions
+     */
+    private static final class Postings {
+        int[] items = new int[4];
+        int size;
+
+        void append(int position) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = position;
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package com.inventory.managers;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.Scanner;
 import com.inventory.models.Order;
 import com.inventory.models.Product;
 import com.inventory.DataStore;
+import com.inventory.PersistenceService;
+import com.inventory.SequenceService;
 
 public class OrderManager {
     private List<Order> orders;
-    private int orderIdCounter;
+    private SalesAggregates salesAggregates = new SalesAggregates(); // Running totals, updated by addOrder
+    private SalesRollup salesRollup = new SalesRollup(ZoneId.systemDefault()); // Sales by minute/hour/day/month
+    // Orders of past months, one compressed file per month; orders holds only the rest
+    private final OrderSegments archive = new OrderSegments(new File(DataStore.ORDER_ARCHIVE_DIR), ZoneId.systemDefault());
+    private long headMonthEnd; // Start of next month, when the current month's orders get archived
+    private final OrderIndex orderIndex = new OrderIndex(); // Positions in orders by product and customer
+    private final Set<String> headOrderIds = new HashSet<>(); // IDs of the orders in orders, for duplicate checks
+    private final SequenceService.Sequence orderIds;
     private InventoryManager inventoryManager;
+    private final PersistenceService persistence;
     
     public OrderManager(InventoryManager inventoryManager) {
         this.orders = new ArrayList<>();
-        this.orderIdCounter = 1;
         this.inventoryManager = inventoryManager;
+        this.persistence = PersistenceService.getInstance();
+        persistence.register(DataStore.ORDERS_FILE, this::snapshotOrders);
         loadOrders();
+        // Records are only scanned for a seed the first time the sequence is used
+        this.orderIds = SequenceService.getInstance().sequence("order",
+                () -> Math.max(SequenceService.nextNumberAfter(orders, Order::getId), archive.nextOrderNumber()));
     }
     
     // Sales & Orders Methods
@@ -62,15 +81,20 @@ public class OrderManager {
         double totalAmount = product.getPrice() * quantity;
         
         // Generate order ID
-        String orderId = "O" + String.format("%03d", orderIdCounter++);
+        String orderId = generateOrderId();
+        
+        // Reserve the stock; another terminal may have sold it since it was checked
+        if (!inventoryManager.tryReserveStock(productId, quantity)) {
+            System.out.println("Error: Insufficient stock. Available: " + inventoryManager.getAvailableStock(productId));
+            return;
+        }
         
         // Create order
         Order order = new Order(orderId, productId, quantity, totalAmount, "Guest");
-        orders.add(order);
+        addOrder(order);
         
         // Update stock
-        int newQuantity = product.getQuantity() - quantity;
-        product.setQuantity(newQuantity);
+        int newQuantity = inventoryManager.commitStock(productId, quantity);
         
         // Display confirmation
         System.out.println("\n=== Order Created Successfully ===");
@@ -84,7 +108,7 @@ public class OrderManager {
     public void viewOrderHistory() {
         System.out.println("\n=== Order History ===");
         
-        if (orders.isEmpty()) {
+        if (orders.isEmpty() && archive.segmentCount() == 0) {
             System.out.println("No orders found.");
             return;
         }
@@ -103,21 +127,19 @@ public class OrderManager {
                              order.getTotalAmount());
         }
         
-        // Show summary
-        System.out.println("\n=== Order Summary ===");
-        System.out.println("Total Orders: " + orders.size());
-        
-        double totalSales = 0;
-        int totalItems = 0;
-        for (Order order : orders) {
-            totalSales += order.getTotalAmount();
-            totalItems += order.getQuantity();
+        int archived = getArchivedOrderCount();
+        if (archived > 0) {
+            System.out.println("(" + archived + " orders from earlier months are archived and not listed)");
         }
         
-        System.out.println("Total Items Sold: " + totalItems);
-        System.out.println("Total Sales: $" + totalSales);
-        if (orders.size() > 0) {
-            System.out.println("Average Order Value: $" + (totalSales / orders.size()));
+        // Show summary from the running totals
+        SalesTotals totals = getSalesTotals();
+        System.out.println("\n=== Order Summary ===");
+        System.out.println("Total Orders: " + totals.getOrderCount());
+        System.out.println("Total Items Sold: " + totals.getUnitsSold());
+        System.out.println("Total Sales: $" + totals.getTotalSales());
+        if (totals.getOrderCount() > 0) {
+            System.out.println("Average Order Value: $" + totals.getAverageOrderValue());
         }
     }
     
@@ -164,8 +186,7 @@ public class OrderManager {
         double totalAmount = product.getPrice() * quantity;
         
         // Update stock
-        int newQuantity = product.getQuantity() - quantity;
-        product.setQuantity(newQuantity);
+        int newQuantity = inventoryManager.adjustStock(productId, -quantity);
         
         // Display sale confirmation
         System.out.println("\n=== Sale Processed Successfully ===");
@@ -190,13 +211,168 @@ public class OrderManager {
     }
     
     // Getter method to access orders list for reports
+    // Only recent orders: the current month and undated ones; see getOrdersBetween for history
     public List<Order> getOrders() {
         return orders;
     }
     
+    /**
+     * Get the orders created in [fromMillis, toMillis), oldest month first.
+     * Archived months that overlap the range are decompressed on demand.
+     */
+    public List<Order> getOrdersBetween(long fromMillis, long toMillis) {
+        return collectOrders(fromMillis, toMillis, false);
+    }
+    
+    /**
+     * Get every order, archived ones first. This loads all archived months, so
+     * prefer getOrdersBetween for reports over a period.
+     */
+    public List<Order> getAllOrders() {
+        return collectOrders(Long.MIN_VALUE, Long.MAX_VALUE, true);
+    }
+    
+    /**
+     * Get the recent orders of a product, oldest first; costs the number of orders found
+     */
+    public synchronized List<Order> getOrdersForProduct(String productId) {
+        return ordersAt(orderIndex.productPositions(productId));
+    }
+    
+    /**
+     * Get the recent orders of a customer (exact name), oldest first; costs the number of orders found
+     */
+    public synchronized List<Order> getOrdersForCustomer(String customerName) {
+        return ordersAt(orderIndex.customerPositions(customerName));
+    }
+    
+    private List<Order> ordersAt(int[] positions) {
+        List<Order> found = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            found.add(orders.get(position));
+        }
+        return found;
+    }
+    
+    /**
+     * Get the number of orders moved to archive segments
+     */
+    public synchronized int getArchivedOrderCount() {
+        return archive.archivedOrderCount();
+    }
+    
+    // Segments are read outside the lock, so a slow historical report never blocks new orders
+    private List<Order> collectOrders(long fromMillis, long toMillis, boolean includeUndated) {
+        List<OrderSegments.Segment> segments;
+        List<Order> recent = new ArrayList<>();
+        synchronized (this) {
+            segments = archive.segmentsBetween(fromMillis, toMillis);
+            for (Order order : orders) {
+                if (order.hasCreatedAt() ? order.getCreatedAt() >= fromMillis && order.getCreatedAt() < toMillis
+                                         : includeUndated) {
+                    recent.add(order);
+                }
+            }
+        }
+        
+        List<Order> result = new ArrayList<>();
+        for (OrderSegments.Segment segment : segments) {
+            for (Order order : archive.load(segment)) {
+                if (order.getCreatedAt() >= fromMillis && order.getCreatedAt() < toMillis) {
+                    bindProductName(order);
+                    result.add(order);
+                }
+            }
+        }
+        result.addAll(recent);
+        return result;
+    }
+    
+    /**
+     * Get order count, units sold and sales value over the whole order history, in O(1)
+     */
+    public synchronized SalesTotals getSalesTotals() {
+        return salesAggregates.totals();
+    }
+    
+    /**
+     * Get the sales totals of one product (all zero if it was never ordered)
+     */
+    public synchronized SalesTotals getSalesTotalsForProduct(String productId) {
+        return salesAggregates.productTotals(productId);
+    }
+    
+    /**
+     * Get the sales totals of one customer (all zero if they never ordered)
+     */
+    public synchronized SalesTotals getSalesTotalsForCustomer(String customerName) {
+        return salesAggregates.customerTotals(customerName);
+    }
+    
+    /**
+     * Get the sales totals of every product that has been ordered, by product ID
+     */
+    public synchronized Map<String, SalesTotals> getSalesTotalsByProduct() {
+        return salesAggregates.totalsByProduct();
+    }
+    
+    /**
+     * Get the sales totals of every customer, by customer name
+     */
+    public synchronized Map<String, SalesTotals> getSalesTotalsByCustomer() {
+        return salesAggregates.totalsByCustomer();
+    }
+    
+    /**
+     * Get the sales of orders created in [fromMillis, toMillis), from the time rollup.
+     * The window start is matched to the minute for the last two hours, to the hour
+     * for the last two days, to the day for the last two months and to the month before that.
+     */
+    public synchronized SalesTotals getSalesTotalsBetween(long fromMillis, long toMillis) {
+        return salesRollup.window(fromMillis, toMillis);
+    }
+    
+    /**
+     * Get the sales of orders created today (local time)
+     */
+    public synchronized SalesTotals getSalesTotalsToday() {
+        long now = System.currentTimeMillis();
+        return salesRollup.window(salesRollup.startOfDay(now), Long.MAX_VALUE);
+    }
+    
+    /**
+     * Get the sales of orders created this calendar month (local time)
+     */
+    public synchronized SalesTotals getSalesTotalsThisMonth() {
+        long now = System.currentTimeMillis();
+        return salesRollup.window(salesRollup.startOfMonth(now), Long.MAX_VALUE);
+    }
+    
+    /**
+     * Get the number of orders saved before creation times were recorded; no time window includes them
+     */
+    public synchronized int getUndatedOrderCount() {
+        return salesRollup.undatedOrderCount();
+    }
+    
+    /**
+     * Generate a new unique order ID (e.g., O001, O002, ...); safe to call from any thread
+     */
+    public String generateOrderId() {
+        return orderIds.nextId("O");
+    }
+    
     // GUI-friendly method to add order
-    public void addOrder(Order order) {
+    public synchronized void addOrder(Order order) {
+        if (System.currentTimeMillis() >= headMonthEnd) {
+            archiveClosedMonths(); // First order of a new month
+        }
+        bindProductName(order);
+        orderIndex.append(orders.size(), order);
         orders.add(order);
+        headOrderIds.add(order.getId());
+        salesAggregates.add(order);
+        salesRollup.add(order.getCreatedAt(), order.getQuantity(), order.getTotalAmount());
         saveOrders(); // Auto-save when order is added
     }
     
@@ -205,39 +381,217 @@ public class OrderManager {
         List<Order> loadedOrders = DataStore.loadData(DataStore.ORDERS_FILE);
         if (loadedOrders != null) {
             this.orders = loadedOrders;
-            // Update order ID counter to avoid conflicts
-            updateOrderIdCounter();
             System.out.println("✓ Loaded " + orders.size() + " orders from storage");
         } else {
             System.out.println("ℹ Starting with empty order history");
         }
+        
+        // Archived months only contribute the figures in their segment headers
+        archive.open(salesAggregates, salesRollup);
+        int loadedCount = orders.size();
+        orders = archive.withoutArchived(orders);
+        salesAggregates.merge(ReportEngine.salesAggregates(orders));
+        for (Order order : orders) {
+            bindProductName(order);
+            salesRollup.add(order.getCreatedAt(), order.getQuantity(), order.getTotalAmount());
+        }
+        if (orders.size() != loadedCount) {
+            saveOrders();
+        }
+        archiveClosedMonths();
+        reindexHead();
     }
     
-    public void saveOrders() {
-        boolean success = DataStore.saveData(DataStore.ORDERS_FILE, orders);
-        if (success) {
-            System.out.println("✓ Order data saved successfully");
-        } else {
-            System.err.println("✗ Failed to save order data");
+    // Move orders from before the current month into archive segments, then save the smaller head
+    private void archiveClosedMonths() {
+        long now = System.currentTimeMillis();
+        int headSize = orders.size();
+        orders = archive.archive(orders, salesRollup.startOfMonth(now));
+        headMonthEnd = salesRollup.startOfNextMonth(now);
+        if (orders.size() != headSize) {
+            reindexHead();
+            saveOrders();
         }
     }
     
-    private void updateOrderIdCounter() {
-        if (!orders.isEmpty()) {
-            // Find the highest order ID number and set counter accordingly
-            int maxId = 0;
-            for (Order order : orders) {
-                try {
-                    String idStr = order.getId().substring(1); // Remove 'O' prefix
-                    int idNum = Integer.parseInt(idStr);
-                    if (idNum > maxId) {
-                        maxId = idNum;
+    // Rebuild the position index and ID set after orders was replaced
+    private void reindexHead() {
+        orderIndex.load(orders);
+        headOrderIds.clear();
+        for (Order order : orders) {
+            headOrderIds.add(order.getId());
+        }
+    }
+    
+    /**
+     * Add a batch of orders, e.g. a point-of-sale import, taking their stock in one transaction.
+     * The quantities are summed per product and removed with a single stock adjustment, so
+     * either the whole batch fits in stock or nothing is changed. The orders are then added
+     * in one pass and saved once; orders without an ID get one from the order sequence,
+     * reserved for the whole batch before the order lock is taken.
+     * @return Product ID -> new quantity, for the products in the batch
+     * @throws IllegalArgumentException if an order is invalid, an order ID is already used,
+     *         a product is unknown or short of stock
+     */
+    public Map<String, Integer> addOrders(Collection<Order> batch) {
+        Map<String, Integer> deltas = new HashMap<>();
+        Set<String> givenIds = new HashSet<>();
+        int missingIds = 0;
+        for (Order order : batch) {
+            if (order == null || order.getProductId() == null) {
+                throw new IllegalArgumentException("Order has no product");
+            }
+            if (order.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for order " + order.getId() + ": " + order.getQuantity());
+            }
+            if (order.getId() == null || order.getId().isEmpty()) {
+                missingIds++;
+            } else if (!givenIds.add(order.getId())) {
+                throw new IllegalArgumentException("Order ID " + order.getId() + " appears more than once in the batch");
+            }
+            deltas.merge(order.getProductId(), -order.getQuantity(), Math::addExact);
+        }
+        if (deltas.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        checkOrderIdsUnused(givenIds);
+
+        // All or nothing; one journaled delta per product
+        Map<String, Integer> newQuantities = inventoryManager.adjustStock(deltas);
+        try {
+            // Given IDs move the sequence past them, so later generated IDs cannot collide
+            long highestGiven = -1;
+            for (String id : givenIds) {
+                highestGiven = Math.max(highestGiven, SequenceService.numberOf(id));
+            }
+            orderIds.skipPast(highestGiven);
+            Iterator<String> newIds = orderIds.nextIds("O", missingIds).iterator();
+
+            synchronized (this) {
+                // Another batch may have taken one of the IDs since they were checked
+                String taken = firstUsedInHead(givenIds);
+                if (taken != null) {
+                    throw new IllegalArgumentException("Order ID " + taken + " is already used");
+                }
+                if (System.currentTimeMillis() >= headMonthEnd) {
+                    archiveClosedMonths();
+                }
+                for (Order order : batch) {
+                    if (order.getId() == null || order.getId().isEmpty()) {
+                        order.setId(newIds.next());
                     }
-                } catch (NumberFormatException e) {
-                    // Skip invalid IDs
+                    bindProductName(order);
+                    orderIndex.append(orders.size(), order);
+                    orders.add(order);
+                    headOrderIds.add(order.getId());
+                    salesAggregates.add(order);
+                    salesRollup.add(order.getCreatedAt(), order.getQuantity(), order.getTotalAmount());
+                }
+                saveOrders();
+            }
+        } catch (RuntimeException e) {
+            // No orders were recorded, so give the stock back
+            restoreStock(deltas, e);
+            throw e;
+        }
+        return newQuantities;
+    }
+    
+    // Undo a batch's stock adjustment; a failure here is attached to the original error
+    private void restoreStock(Map<String, Integer> deltas, RuntimeException cause) {
+        Map<String, Integer> restore = new HashMap<>();
+        deltas.forEach((productId, delta) -> restore.put(productId, -delta));
+        try {
+            inventoryManager.adjustStock(restore);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+    
+    /**
+     * Import orders from a CSV file with the columns productId,quantity,customer[,orderId]
+     * as one batch (see addOrders). The total is the product's current price times the
+     * quantity; a header line and blank lines are skipped.
+     * @return The number of orders imported
+     * @throws IllegalArgumentException if a line is malformed or names an unknown product
+     */
+    public int importOrders(File csvFile) throws IOException {
+        List<Order> batch = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String[] fields = line.split(",", -1);
+            if (line.trim().isEmpty() || (lineNumber == 1 && fields[0].trim().equalsIgnoreCase("productId"))) {
+                continue;
+            }
+            if (fields.length < 3 || fields.length > 4) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected productId,quantity,customer[,orderId]");
+            }
+            String productId = fields[0].trim();
+            Product product = inventoryManager.findProductById(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": product not found with ID: " + productId);
+            }
+            int quantity;
+            try {
+                quantity = Integer.parseInt(fields[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid quantity " + fields[1].trim());
+            }
+            String orderId = fields.length == 4 ? fields[3].trim() : null;
+            batch.add(new Order(orderId, productId, quantity, product.getPrice() * quantity, fields[2].trim()));
+        }
+        addOrders(batch);
+        return batch.size();
+    }
+    
+    // Reject IDs already used by an order in the head or an archived month
+    private void checkOrderIdsUnused(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<OrderSegments.Segment> segments;
+        synchronized (this) {
+            String taken = firstUsedInHead(ids);
+            if (taken != null) {
+                throw new IllegalArgumentException("Order ID " + taken + " is already used");
+            }
+            segments = archive.segmentsMayHold(ids);
+        }
+        // Archived orders never change, so their segments are searched outside the lock
+        for (OrderSegments.Segment segment : segments) {
+            for (Order order : archive.load(segment)) {
+                if (ids.contains(order.getId())) {
+                    throw new IllegalArgumentException("Order ID " + order.getId() + " is already used");
                 }
             }
-            this.orderIdCounter = maxId + 1;
         }
     }
+    
+    // Caller holds the lock
+    private String firstUsedInHead(Set<String> ids) {
+        for (String id : ids) {
+            if (headOrderIds.contains(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    // Give the order its product's shared name reference, so rows never look the product up
+    private void bindProductName(Order order) {
+        order.setProductNameRef(inventoryManager.getProductNameRef(order.getProductId()));
+    }
+    
+    /**
+     * Queue a save of the order history; it is written in the background by the PersistenceService
+     */
+    public void saveOrders() {
+        persistence.markDirty(DataStore.ORDERS_FILE);
+    }
+    
+    // Copy taken by the persistence thread when it writes the orders file
+    private synchronized List<Order> snapshotOrders() {
+        return new ArrayList<>(orders);
+    }
 }
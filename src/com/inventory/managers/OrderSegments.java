@@ -0,0 +1,384 @@
+package com.inventory.managers;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.inventory.DataStore;
+import com.inventory.ModelCodec;
+import com.inventory.SequenceService;
+import com.inventory.models.Order;
+
+/**
+ * Cold storage for the orders of past months.
+ *
+ * Once a month is over, its orders are moved out of orders.dat into a
+ * gzip-compressed segment file that is written once and never rewritten, so
+ * orders.dat (the head) only holds the current month and the cost of saving
+ * it tracks recent order volume. Each segment starts with an aggregate header
+ * (sales totals overall, per product, per customer and per hour); startup
+ * reads only the headers, and the orders themselves are decompressed when a
+ * historical report asks for them and kept only as long as memory allows.
+ *
+ * Segment layout, inside the gzip stream:
+ *   int magic, short version, short year, byte month, long nextOrderNumber,
+ *   long firstCreatedAt, long lastCreatedAt, sales aggregates,
+ *   int hourCount, (long createdAt, int orders, long units, double sales)[hourCount],
+ *   orders in the ModelCodec list format
+ *
+ * Not thread-safe: the OrderManager calls it under its own lock, except for
+ * {@link #load}, which may be called from any thread.
+ */
+class OrderSegments {
+
+    private static final int SEGMENT_MAGIC = 0x494D534F; // "IMSO"
+    private static final short SEGMENT_VERSION = 1;
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    /**
+     * One segment file, described by its header
+     */
+    static final class Segment {
+        final File file;
+        final YearMonth month;
+        final int orderCount;
+        final long firstCreatedAt;
+        final long lastCreatedAt;
+        final long nextOrderNumber; // One past the highest order number in the segment
+        private SoftReference<List<Order>> loaded = new SoftReference<>(null);
+
+        Segment(File file, YearMonth month, int orderCount, long firstCreatedAt, long lastCreatedAt,
+                long nextOrderNumber) {
+            this.file = file;
+            this.month = month;
+            this.orderCount = orderCount;
+            this.firstCreatedAt = firstCreatedAt;
+            this.lastCreatedAt = lastCreatedAt;
+            this.nextOrderNumber = nextOrderNumber;
+        }
+
+        // True if any order of the segment may have been created in [fromMillis, toMillis)
+        boolean overlaps(long fromMillis, long toMillis) {
+            return firstCreatedAt < toMillis && lastCreatedAt >= fromMillis;
+        }
+    }
+
+    private final File directory;
+    private final ZoneId zone;
+    private final List<Segment> segments = new ArrayList<>();
+
+    OrderSegments(File directory, ZoneId zone) {
+        this.directory = directory;
+        this.zone = zone;
+    }
+
+    /**
+     * Read the header of every segment and add its figures to the running totals and time rollup
+     */
+    void open(SalesAggregates totals, SalesRollup rollup) {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        int archivedOrders = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(SEGMENT_SUFFIX + DataStore.TEMP_SUFFIX)) {
+                file.delete(); // Interrupted archive run; its orders are still in the head
+                continue;
+            }
+            if (!file.getName().endsWith(SEGMENT_SUFFIX)) {
+                continue;
+            }
+            try (DataInputStream in = openSegment(file)) {
+                Segment segment = readHeader(in, file, totals, rollup);
+                segments.add(segment);
+                archivedOrders += segment.orderCount;
+            } catch (IOException e) {
+                System.err.println("✗ Error reading order segment " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        if (!segments.isEmpty()) {
+            System.out.println("✓ Found " + archivedOrders + " archived orders in " + segments.size() + " segments");
+        }
+    }
+
+    /**
+     * Drop head orders that are already in a segment. That only happens when the
+     * application stopped after writing a segment but before saving the smaller head.
+     */
+    List<Order> withoutArchived(List<Order> head) {
+        Set<YearMonth> archivedMonths = new HashSet<>();
+        for (Segment segment : segments) {
+            archivedMonths.add(segment.month);
+        }
+        Set<YearMonth> overlapping = new HashSet<>();
+        for (Order order : head) {
+            if (order.hasCreatedAt() && archivedMonths.contains(monthOf(order))) {
+                overlapping.add(monthOf(order));
+            }
+        }
+        if (overlapping.isEmpty()) {
+            return head;
+        }
+
+        Set<String> archivedIds = new HashSet<>();
+        for (Segment segment : segments) {
+            if (overlapping.contains(segment.month)) {
+                for (Order order : load(segment)) {
+                    archivedIds.add(order.getId());
+                }
+            }
+        }
+        List<Order> remaining = new ArrayList<>(head.size());
+        for (Order order : head) {
+            if (!order.hasCreatedAt() || !archivedIds.contains(order.getId())) {
+                remaining.add(order);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Move the head orders created before the given time into one new segment per month.
+     * Orders without a creation time stay in the head.
+     * @return The orders that stay in the head, in their original order
+     */
+    List<Order> archive(List<Order> head, long beforeMillis) {
+        Map<YearMonth, List<Order>> closedMonths = new TreeMap<>();
+        for (Order order : head) {
+            if (order.hasCreatedAt() && order.getCreatedAt() < beforeMillis) {
+                closedMonths.computeIfAbsent(monthOf(order), month -> new ArrayList<>()).add(order);
+            }
+        }
+        if (closedMonths.isEmpty()) {
+            return head;
+        }
+
+        Set<YearMonth> archived = new HashSet<>();
+        for (Map.Entry<YearMonth, List<Order>> month : closedMonths.entrySet()) {
+            try {
+                Segment segment = writeSegment(month.getKey(), month.getValue());
+                segments.add(segment);
+                archived.add(month.getKey());
+                System.out.println("✓ Archived " + segment.orderCount + " orders from " + month.getKey()
+                                   + " to " + segment.file.getPath());
+            } catch (IOException e) {
+                // The orders stay in the head and are archived on a later run
+                System.err.println("✗ Error archiving orders from " + month.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        List<Order> remaining = new ArrayList<>(head.size());
+        for (Order order : head) {
+            if (!order.hasCreatedAt() || order.getCreatedAt() >= beforeMillis || !archived.contains(monthOf(order))) {
+                remaining.add(order);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Get the orders of a segment, decompressing the file unless it is still in memory
+     */
+    List<Order> load(Segment segment) {
+        synchronized (segment) {
+            List<Order> orders = segment.loaded.get();
+            if (orders != null) {
+                return orders;
+            }
+            try (DataInputStream in = openSegment(segment.file)) {
+                readHeader(in, segment.file, null, null);
+                List<Order> read = new ArrayList<>();
+                for (Object record : ModelCodec.readList(in)) {
+                    read.add((Order) record);
+                }
+                orders = Collections.unmodifiableList(read);
+            } catch (IOException | ClassCastException e) {
+                System.err.println("✗ Error loading order segment " + segment.file.getName() + ": " + e.getMessage());
+                return Collections.emptyList();
+            }
+            segment.loaded = new SoftReference<>(orders);
+            return orders;
+        }
+    }
+
+    /**
+     * Get the segments that may hold orders created in [fromMillis, toMillis), oldest first
+     */
+    List<Segment> segmentsBetween(long fromMillis, long toMillis) {
+        List<Segment> matching = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.overlaps(fromMillis, toMillis)) {
+                matching.add(segment);
+            }
+        }
+        matching.sort(Comparator.comparing((Segment segment) -> segment.month)
+                .thenComparing(segment -> segment.file.getName()));
+        return matching;
+    }
+
+    /**
+     * Get the segments that may hold any of the given order IDs. A numbered ID can only be in
+     * a segment whose numbers reach past it; an ID without a number may be in any segment.
+     */
+    List<Segment> segmentsMayHold(Collection<String> orderIds) {
+        long lowest = Long.MAX_VALUE;
+        for (String id : orderIds) {
+            long number = SequenceService.numberOf(id);
+            lowest = Math.min(lowest, number < 0 ? -1 : number);
+        }
+        List<Segment> matching = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.nextOrderNumber > lowest) {
+                matching.add(segment);
+            }
+        }
+        return matching;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    int archivedOrderCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.orderCount;
+        }
+        return count;
+    }
+
+    /**
+     * One past the highest order number in any segment, for seeding the order ID sequence
+     */
+    long nextOrderNumber() {
+        long next = 1;
+        for (Segment segment : segments) {
+            next = Math.max(next, segment.nextOrderNumber);
+        }
+        return next;
+    }
+
+    // Written to a temporary file, synced and renamed, so a segment is either complete or absent
+    private Segment writeSegment(YearMonth month, List<Order> orders) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory.getPath());
+        }
+        File file = segmentFile(month);
+        File temp = new File(file.getPath() + DataStore.TEMP_SUFFIX);
+
+        SalesAggregates summary = new SalesAggregates();
+        Map<Long, SalesAggregates.Figures> hours = new TreeMap<>();
+        Map<Long, Long> hourCreatedAt = new HashMap<>();
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (Order order : orders) {
+            summary.add(order);
+            long hour = Math.floorDiv(toLocal(order.getCreatedAt()), MILLIS_PER_HOUR);
+            hours.computeIfAbsent(hour, key -> new SalesAggregates.Figures()).add(order);
+            hourCreatedAt.putIfAbsent(hour, order.getCreatedAt());
+            first = Math.min(first, order.getCreatedAt());
+            last = Math.max(last, order.getCreatedAt());
+        }
+        long nextOrderNumber = SequenceService.nextNumberAfter(orders, Order::getId);
+
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out, 64 * 1024), 64 * 1024);
+            DataOutputStream data = new DataOutputStream(gzip);
+            data.writeInt(SEGMENT_MAGIC);
+            data.writeShort(SEGMENT_VERSION);
+            data.writeShort(month.getYear());
+            data.writeByte(month.getMonthValue());
+            data.writeLong(nextOrderNumber);
+            data.writeLong(first);
+            data.writeLong(last);
+            summary.write(data);
+            data.writeInt(hours.size());
+            for (Map.Entry<Long, SalesAggregates.Figures> hour : hours.entrySet()) {
+                SalesAggregates.Figures figures = hour.getValue();
+                data.writeLong(hourCreatedAt.get(hour.getKey()));
+                data.writeInt(figures.orders);
+                data.writeLong(figures.units);
+                data.writeDouble(figures.sales.value());
+            }
+            ModelCodec.writeList(data, orders);
+            data.flush();
+            gzip.finish();
+            gzip.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return new Segment(file, month, orders.size(), first, last, nextOrderNumber);
+    }
+
+    // Reads the header; if totals is not null, adds the header's figures to totals and rollup
+    private static Segment readHeader(DataInputStream in, File file, SalesAggregates totals, SalesRollup rollup)
+            throws IOException {
+        if (in.readInt() != SEGMENT_MAGIC) {
+            throw new IOException("not an order segment");
+        }
+        short version = in.readShort();
+        if (version != SEGMENT_VERSION) {
+            throw new IOException("unsupported segment version " + version);
+        }
+        YearMonth month = YearMonth.of(in.readShort(), in.readByte());
+        long nextOrderNumber = in.readLong();
+        long first = in.readLong();
+        long last = in.readLong();
+        SalesAggregates summary = SalesAggregates.read(in);
+        int hourCount = in.readInt();
+        long[] hourCreatedAt = new long[hourCount];
+        int[] hourOrders = new int[hourCount];
+        long[] hourUnits = new long[hourCount];
+        double[] hourSales = new double[hourCount];
+        for (int i = 0; i < hourCount; i++) {
+            hourCreatedAt[i] = in.readLong();
+            hourOrders[i] = in.readInt();
+            hourUnits[i] = in.readLong();
+            hourSales[i] = in.readDouble();
+        }
+
+        // Only counted once the whole header has been read
+        if (totals != null) {
+            totals.merge(summary);
+            for (int i = 0; i < hourCount; i++) {
+                rollup.addHour(hourCreatedAt[i], hourOrders[i], hourUnits[i], hourSales[i]);
+            }
+        }
+        return new Segment(file, month, summary.totals().getOrderCount(), first, last, nextOrderNumber);
+    }
+
+    private static DataInputStream openSegment(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), 64 * 1024), 64 * 1024));
+    }
+
+    // A month is normally archived once; later orders dated in it (e.g. after a clock change) get another part
+    private File segmentFile(YearMonth month) {
+        File file = new File(directory, SEGMENT_PREFIX + month + SEGMENT_SUFFIX);
+        for (int part = 1; file.exists(); part++) {
+            file = new File(directory, SEGMENT_PREFIX + month + "." + part + SEGMENT_SUFFIX);
+        }
+        return file;
+    }
+
+    private YearMonth monthOf(Order order) {
+        return YearMonth.from(Instant.ofEpochMilli(order.getCreatedAt()).atZone(zone));
+    }
+
+    private long toLocal(long millis) {
+        return millis + zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sorted prefix index for autocomplete.
+ *
+ * Each record is registered under one or more lowercased terms (for example
+ * a product's name and ID). Keys are "term\0recordId", so all completions of
+ * a prefix form one contiguous range of the sorted map and the first K
+ * records are found in O(log n + K), whatever the size of the catalog.
+ * Completions are ranked alphabetically, which puts shorter terms that equal
+ * the typed prefix ahead of longer ones.
+ */
+class PrefixIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final TreeMap<String, String> idsByKey = new TreeMap<>();
+    private final Map<String, String[]> termsById = new HashMap<>();
+
+    /**
+     * Register a record under the given terms, replacing any terms it had before
+     */
+    void put(String id, String... terms) {
+        String[] lowered = new String[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            lowered[i] = terms[i] == null ? "" : terms[i].toLowerCase();
+        }
+        String[] previous = termsById.put(id, lowered);
+        if (previous != null) {
+            if (Arrays.equals(previous, lowered)) {
+                return;
+            }
+            unlink(id, previous);
+        }
+        for (String term : lowered) {
+            if (!term.isEmpty()) {
+                idsByKey.put(term + SEPARATOR + id, id);
+            }
+        }
+    }
+
+    void remove(String id) {
+        String[] previous = termsById.remove(id);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+    }
+
+    void clear() {
+        idsByKey.clear();
+        termsById.clear();
+    }
+
+    /**
+     * Get up to limit record IDs with a term starting with the prefix, best match first
+     */
+    List<String> complete(String prefix, int limit) {
+        String start = prefix == null ? "" : prefix.trim().toLowerCase();
+        NavigableMap<String, String> range = start.isEmpty()
+                ? idsByKey
+                : idsByKey.subMap(start, true, start + Character.MAX_VALUE, false);
+
+        // A record can match on more than one term; list it once
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : range.values()) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void unlink(String id, String[] terms) {
+        for (String term : terms) {
+            idsByKey.remove(term + SEPARATOR + id);
+        }
+    }
+}
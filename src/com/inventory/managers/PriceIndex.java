@@ -0,0 +1,183 @@
+package com.inventory.managers;
+
+import java.util.Arrays;
+
+/**
+ * Sorted index of product prices kept in primitive arrays.
+ *
+ * Entries are (price, position) pairs ordered by price and then by position,
+ * where position is the product's index in the InventoryManager's list. Range
+ * queries are two binary searches; edits shift the arrays with System.arraycopy
+ * instead of boxing every key into a TreeMap.
+ *
+ * The price each position was indexed with is remembered separately, so an
+ * entry can be found again after the Product object was edited in place.
+ */
+class PriceIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Sorted entries
+    private double[] sortedPrices = new double[INITIAL_CAPACITY];
+    private int[] sortedPositions = new int[INITIAL_CAPACITY];
+    private int entries;
+
+    // Price last indexed for each position (dense, 0 .. size-1)
+    private double[] priceByPosition = new double[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index the price of a position; position == size() appends a new product
+     */
+    void set(int position, double price) {
+        if (position < size) {
+            if (Double.compare(priceByPosition[position], price) == 0) {
+                return;
+            }
+            removeEntry(priceByPosition[position], position);
+        } else if (position == size) {
+            ensureCapacity(size + 1);
+            size++;
+        } else {
+            throw new IllegalArgumentException("Position " + position + " is past the end of the index");
+        }
+        priceByPosition[position] = price;
+        insertEntry(price, position);
+    }
+
+    /**
+     * Mirror a swap-remove on the product list: drop the entry for a position and
+     * renumber the last position to take its place
+     */
+    void removeSwap(int position) {
+        int last = size - 1;
+        removeEntry(priceByPosition[position], position);
+        if (position != last) {
+            double movedPrice = priceByPosition[last];
+            removeEntry(movedPrice, last);
+            priceByPosition[position] = movedPrice;
+            insertEntry(movedPrice, position);
+        }
+        size--;
+    }
+
+    /**
+     * Replace the whole index with the given prices, one per position
+     */
+    void load(double[] prices, int count) {
+        ensureCapacity(count);
+        System.arraycopy(prices, 0, priceByPosition, 0, count);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sortPositions(order, new int[count], 0, count);
+        for (int i = 0; i < count; i++) {
+            sortedPositions[i] = order[i];
+            sortedPrices[i] = priceByPosition[order[i]];
+        }
+        size = count;
+        entries = count;
+    }
+
+    void clear() {
+        size = 0;
+        entries = 0;
+    }
+
+    /**
+     * Get the positions of every price in [minPrice, maxPrice], cheapest first
+     */
+    int[] range(double minPrice, double maxPrice) {
+        if (Double.compare(minPrice, maxPrice) > 0) {
+            return new int[0];
+        }
+        int from = lowerBound(minPrice, Integer.MIN_VALUE);
+        int to = lowerBound(maxPrice, Integer.MAX_VALUE);
+        return Arrays.copyOfRange(sortedPositions, from, to);
+    }
+
+    /**
+     * Get the position holding the given rank in price order (0 = cheapest)
+     */
+    int positionAt(int rank) {
+        return sortedPositions[rank];
+    }
+
+    private void insertEntry(double price, int position) {
+        int index = lowerBound(price, position);
+        System.arraycopy(sortedPrices, index, sortedPrices, index + 1, entries - index);
+        System.arraycopy(sortedPositions, index, sortedPositions, index + 1, entries - index);
+        sortedPrices[index] = price;
+        sortedPositions[index] = position;
+        entries++;
+    }
+
+    private void removeEntry(double price, int position) {
+        int index = lowerBound(price, position);
+        if (index >= entries || sortedPositions[index] != position) {
+            throw new IllegalStateException("Price index is missing position " + position);
+        }
+        System.arraycopy(sortedPrices, index + 1, sortedPrices, index, entries - index - 1);
+        System.arraycopy(sortedPositions, index + 1, sortedPositions, index, entries - index - 1);
+        entries--;
+    }
+
+    // First entry that is not less than (price, position)
+    private int lowerBound(double price, int position) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(sortedPrices[mid], sortedPositions[mid], price, position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double price1, int position1, double price2, int position2) {
+        int result = Double.compare(price1, price2);
+        return result != 0 ? result : Integer.compare(position1, position2);
+    }
+
+    // Merge sort of positions by (price, position) without boxing
+    private void sortPositions(int[] positions, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortPositions(positions, buffer, from, mid);
+        sortPositions(positions, buffer, mid, to);
+        if (compare(priceByPosition[positions[mid - 1]], positions[mid - 1],
+                    priceByPosition[positions[mid]], positions[mid]) <= 0) {
+            return; // Already in order
+        }
+        System.arraycopy(positions, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compare(priceByPosition[buffer[left]], buffer[left],
+                                                      priceByPosition[buffer[right]], buffer[right]) <= 0)) {
+                positions[i] = buffer[left++];
+            } else {
+                positions[i] = buffer[right++];
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > priceByPosition.length) {
+            int newCapacity = Math.max(capacity, priceByPosition.length * 2);
+            sortedPrices = Arrays.copyOf(sortedPrices, newCapacity);
+            sortedPositions = Arrays.copyOf(sortedPositions, newCapacity);
+            priceByPosition = Arrays.copyOf(priceByPosition, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.inventory.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.inventory.models.Product;
+
+/**
+ * The numeric fields of every product in parallel primitive arrays.
+ *
+ * Slot i holds the product at position i of the InventoryManager's list, so the
+ * columns follow the same swap-remove as the list. Aggregates over the whole
+ * inventory then walk a few contiguous arrays instead of visiting one heap
+ * object per product. Supplier IDs are stored as ordinals into a dictionary so
+ * per-supplier totals can be accumulated into arrays in a single pass.
+ * Whole-inventory aggregates run on SIMD kernels where the JVM supports them.
+ *
+ * Stock changes do not write the columns: each slot keeps the product's stock
+ * ledger counter, and the quantity column is gathered from the counters at the
+ * start of every aggregate, so stock updates never need the manager lock.
+ */
+class ProductColumns {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final AggregationKernels KERNELS = AggregationKernels.select();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] reorderLevels = new int[INITIAL_CAPACITY];
+    private int[] supplierOrdinals = new int[INITIAL_CAPACITY];
+    private StockLedger.Counter[] counters = new StockLedger.Counter[INITIAL_CAPACITY];
+    private int size;
+
+    // Supplier ID dictionary; ordinals are never reused until the columns are cleared
+    private final List<String> supplierIds = new ArrayList<>();
+    private final Map<String, Integer> ordinalBySupplier = new HashMap<>();
+
+    int size() {
+        return size;
+    }
+
+    // Which kernel implementation the aggregates run on
+    static String kernelName() {
+        return KERNELS.name();
+    }
+
+    /**
+     * Store the fields of a product and its stock counter at a position; position == size() appends
+     */
+    void set(int position, Product product, StockLedger.Counter counter) {
+        if (position == size) {
+            ensureCapacity(size + 1);
+            size++;
+        } else if (position > size) {
+            throw new IllegalArgumentException("Position " + position + " is past the end of the columns");
+        }
+        ids[position] = product.getId();
+        prices[position] = product.getPrice();
+        quantities[position] = product.getQuantity();
+        reorderLevels[position] = product.getReorderLevel();
+        supplierOrdinals[position] = supplierOrdinal(product.getSupplierId());
+        counters[position] = counter;
+    }
+
+    /**
+     * Mirror a swap-remove on the product list
+     */
+    void removeSwap(int position) {
+        int last = size - 1;
+        if (position != last) {
+            ids[position] = ids[last];
+            prices[position] = prices[last];
+            quantities[position] = quantities[last];
+            reorderLevels[position] = reorderLevels[last];
+            supplierOrdinals[position] = supplierOrdinals[last];
+            counters[position] = counters[last];
+        }
+        ids[last] = null;
+        counters[last] = null;
+        size--;
+    }
+
+    /**
+     * Replace all columns with the given products, one per position, each with its ledger counter
+     */
+    void load(List<Product> products, StockLedger ledger) {
+        clear();
+        ensureCapacity(products.size());
+        for (Product product : products) {
+            set(size, product, ledger.counter(product.getId()));
+        }
+    }
+
+    void clear() {
+        Arrays.fill(ids, 0, size, null);
+        Arrays.fill(counters, 0, size, null);
+        size = 0;
+        supplierIds.clear();
+        ordinalBySupplier.clear();
+    }
+
+    /**
+     * Sum value and stock over every product, in parallel chunks for large inventories
+     */
+    InventoryTotals totals() {
+        gatherQuantities();
+        return ReportEngine.inventoryTotals(this);
+    }
+
+    /**
+     * Sum value and stock over the slots [from, to); one chunk of a report
+     */
+    ReportEngine.ProductPartial accumulate(int from, int to) {
+        ReportEngine.ProductPartial partial = new ReportEngine.ProductPartial();
+        partial.products = to - from;
+        partial.items = KERNELS.totalUnits(quantities, from, to);
+        partial.value.add(KERNELS.totalValue(prices, quantities, from, to));
+        partial.lowStock = KERNELS.countLowStock(quantities, reorderLevels, from, to);
+        partial.outOfStock = KERNELS.countOutOfStock(quantities, from, to);
+        return partial;
+    }
+
+    /**
+     * Sum value and stock over the products priced in [minPrice, maxPrice]
+     */
+    InventoryTotals totals(double minPrice, double maxPrice) {
+        gatherQuantities();
+        int[] positions = new int[size];
+        int count = KERNELS.filterPriceRange(prices, 0, size, minPrice, maxPrice, positions);
+        double value = 0.0;
+        long items = 0;
+        int lowStock = 0;
+        int outOfStock = 0;
+        for (int i = 0; i < count; i++) {
+            int position = positions[i];
+            int quantity = quantities[position];
+            value += prices[position] * quantity;
+            items += quantity;
+            if (quantity <= reorderLevels[position]) {
+                lowStock++;
+            }
+            if (quantity == 0) {
+                outOfStock++;
+            }
+        }
+        return new InventoryTotals(count, items, value, lowStock, outOfStock);
+    }
+
+    /**
+     * Sum value and stock per supplier in one pass; products without a supplier are under ""
+     */
+    Map<String, InventoryTotals> totalsBySupplier() {
+        gatherQuantities();
+        int suppliers = supplierIds.size();
+        int[] products = new int[suppliers];
+        long[] items = new long[suppliers];
+        double[] value = new double[suppliers];
+        int[] lowStock = new int[suppliers];
+        int[] outOfStock = new int[suppliers];
+        for (int i = 0; i < size; i++) {
+            int supplier = supplierOrdinals[i];
+            int quantity = quantities[i];
+            products[supplier]++;
+            items[supplier] += quantity;
+            value[supplier] += prices[i] * quantity;
+            if (quantity <= reorderLevels[i]) {
+                lowStock[supplier]++;
+            }
+            if (quantity == 0) {
+                outOfStock[supplier]++;
+            }
+        }
+
+        Map<String, InventoryTotals> totals = new LinkedHashMap<>();
+        for (int supplier = 0; supplier < suppliers; supplier++) {
+            if (products[supplier] > 0) {
+                totals.put(supplierIds.get(supplier), new InventoryTotals(products[supplier], items[supplier],
+                        value[supplier], lowStock[supplier], outOfStock[supplier]));
+            }
+        }
+        return totals;
+    }
+
+    // Copy the current on-hand counts into the quantity column before an aggregate reads it
+    private void gatherQuantities() {
+        for (int i = 0; i < size; i++) {
+            quantities[i] = counters[i].onHand.get();
+        }
+    }
+
+    private int supplierOrdinal(String supplierId) {
+        String supplier = supplierId == null ? "" : supplierId;
+        Integer ordinal = ordinalBySupplier.get(supplier);
+        if (ordinal == null) {
+            ordinal = supplierIds.size();
+            supplierIds.add(supplier);
+            ordinalBySupplier.put(supplier, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            quantities = Arrays.copyOf(quantities, newCapacity);
+            reorderLevels = Arrays.copyOf(reorderLevels, newCapacity);
+            supplierOrdinals = Arrays.copyOf(supplierOrdinals, newCapacity);
+            counters = Arrays.copyOf(counters, newCapacity);
+        }
+    }
+}
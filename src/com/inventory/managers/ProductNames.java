@@ -0,0 +1,76 @@
+package com.inventory.managers;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.inventory.models.Product;
+import com.inventory.models.ProductNameRef;
+
+/**
+ * Shared name references by product ID, kept current as products are renamed and deleted.
+ *
+ * A product ID only ever gets one reference, which orders hold on to, so a
+ * rename is a single write seen by every order of the product. A deleted
+ * product's reference stays (reading "Unknown") in case the ID comes back.
+ * Reads take no lock; writes happen under the InventoryManager's lock.
+ */
+class ProductNames {
+
+    private final Map<String, ProductNameRef> refs = new ConcurrentHashMap<>();
+
+    /**
+     * Get the reference of a product ID, creating an unnamed one if no product was indexed with it
+     */
+    ProductNameRef ref(String productId) {
+        if (productId == null) {
+            return new ProductNameRef(null, null);
+        }
+        return refs.computeIfAbsent(productId, id -> new ProductNameRef(id, null));
+    }
+
+    /**
+     * Record a product's name; called whenever the product is indexed
+     */
+    void rename(String productId, String name) {
+        ref(productId).setName(name);
+    }
+
+    void remove(String productId) {
+        ProductNameRef ref = refs.get(productId);
+        if (ref != null) {
+            ref.setName(null);
+        }
+    }
+
+    /**
+     * Match every reference to a freshly loaded product list
+     */
+    void load(List<Product> products) {
+        Set<String> loadedIds = new HashSet<>(products.size() * 2);
+        for (Product product : products) {
+            rename(product.getId(), product.getName());
+            loadedIds.add(product.getId());
+        }
+        for (ProductNameRef ref : refs.values()) {
+            if (!loadedIds.contains(ref.getProductId())) {
+                ref.setName(null);
+            }
+        }
+    }
+
+    /**
+     * Current names of the given product IDs, in the same order; unknown IDs map to "Unknown"
+     */
+    Map<String, String> names(Collection<String> productIds) {
+        Map<String, String> names = new LinkedHashMap<>(productIds.size() * 2);
+        for (String productId : productIds) {
+            ProductNameRef ref = productId == null ? null : refs.get(productId);
+            names.put(productId, ref != null ? ref.getName() : ProductNameRef.UNKNOWN_NAME);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.managers;
+
+import java.util.List;
+import com.inventory.models.Product;
+
+/**
+ * A read-only view of the product list at one point in time.
+ *
+ * The products are copies taken when the snapshot was built, so later stock
+ * changes and edits never show through and a reader may hold the snapshot as
+ * long as it likes. The InventoryManager publishes a new snapshot through a
+ * volatile field after writes and every reader shares it until the next change.
+ * Editing a copy changes nothing until it is passed to updateProduct.
+ */
+public final class ProductSnapshot {
+
+    private final long version;
+    private final long structureVersion;
+    private final List<Product> products;
+
+    ProductSnapshot(long version, long structureVersion, List<Product> products) {
+        this.version = version;
+        this.structureVersion = structureVersion;
+        this.products = products;
+    }
+
+    // Version of the product data the copies were taken at
+    long getVersion() {
+        return version;
+    }
+
+    // Version of the list membership; while it is unchanged unedited copies can be reused
+    long getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Get the products in this snapshot (unmodifiable)
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public int size() {
+        return products.size();
+    }
+}
@@ -0,0 +1,167 @@
+package com.inventory.managers;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import com.inventory.models.Order;
+
+/**
+ * Splits report computations into fixed-size chunks and runs them on a ForkJoinPool.
+ *
+ * Chunk boundaries and the order in which partial results are merged depend
+ * only on the collection size, never on thread timing, and money is added up
+ * with compensated (Neumaier) summation, so a report gives the same figures
+ * every time, and the same figures in parallel and sequential mode. Below
+ * PARALLEL_THRESHOLD elements (or on a single core) the same chunks are
+ * simply run one after another on the calling thread.
+ *
+ * Compensation only happens across chunks: inside a chunk, values are added
+ * by the plain kernel loops, so each chunk's own sum carries ordinary
+ * floating-point rounding (at most CHUNK_SIZE additions).
+ */
+class ReportEngine {
+
+    static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int CHUNK_SIZE = 8_192;
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    /**
+     * Computes the partial result of one chunk [from, to)
+     */
+    interface ChunkFunction<T> {
+        T apply(int from, int to);
+    }
+
+    /**
+     * Running sum that carries the rounding error of every addition
+     */
+    static final class CompensatedSum {
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - total) + value;
+            } else {
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+
+        void add(CompensatedSum other) {
+            add(other.sum);
+            compensation += other.compensation;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+    }
+
+    /**
+     * Partial inventory totals of a chunk of product columns
+     */
+    static final class ProductPartial {
+        int products;
+        long items;
+        final CompensatedSum value = new CompensatedSum();
+        int lowStock;
+        int outOfStock;
+
+        ProductPartial merge(ProductPartial other) {
+            products += other.products;
+            items += other.items;
+            value.add(other.value);
+            lowStock += other.lowStock;
+            outOfStock += other.outOfStock;
+            return this;
+        }
+    }
+
+    /**
+     * Total the product columns, in parallel for large inventories
+     */
+    static InventoryTotals inventoryTotals(ProductColumns columns) {
+        int size = columns.size();
+        boolean parallel = isParallel(size);
+        ProductPartial totals = run(size, parallel, columns::accumulate, ProductPartial::merge);
+        return new InventoryTotals(totals.products, totals.items, totals.value.value(),
+                totals.lowStock, totals.outOfStock, describe(size, parallel, ProductColumns.kernelName()));
+    }
+
+    /**
+     * Build the sales aggregates of a list of orders, in parallel for long order histories
+     * @param orders Must not change while the aggregates are built
+     */
+    static SalesAggregates salesAggregates(List<Order> orders) {
+        return run(orders.size(), isParallel(orders.size()), (from, to) -> {
+            SalesAggregates chunk = new SalesAggregates();
+            for (int i = from; i < to; i++) {
+                chunk.add(orders.get(i));
+            }
+            return chunk;
+        }, SalesAggregates::merge);
+    }
+
+    private static boolean isParallel(int size) {
+        return size >= PARALLEL_THRESHOLD && POOL.getParallelism() > 1;
+    }
+
+    private static String describe(int size, boolean parallel, String kernels) {
+        String mode = parallel
+                ? "Parallel (" + chunkCount(size) + " chunks on " + POOL.getParallelism() + " threads"
+                : "Sequential (" + (size < PARALLEL_THRESHOLD ? "below " + PARALLEL_THRESHOLD + " records" : "single core");
+        return mode + ", " + kernels + " kernels)";
+    }
+
+    private static int chunkCount(int size) {
+        return Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private static <T> T run(int size, boolean parallel, ChunkFunction<T> chunk, BinaryOperator<T> merge) {
+        ChunkTask<T> task = new ChunkTask<>(size, 0, chunkCount(size), parallel, chunk, merge);
+        return parallel ? POOL.invoke(task) : task.compute();
+    }
+
+    // Halves a run of chunks until one chunk is left; the split never depends on the thread count
+    private static final class ChunkTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int size;
+        private final int firstChunk;
+        private final int endChunk;
+        private final boolean parallel;
+        private final ChunkFunction<T> chunk;
+        private final BinaryOperator<T> merge;
+
+        ChunkTask(int size, int firstChunk, int endChunk, boolean parallel,
+                  ChunkFunction<T> chunk, BinaryOperator<T> merge) {
+            this.size = size;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+            this.parallel = parallel;
+            this.chunk = chunk;
+            this.merge = merge;
+        }
+
+        @Override
+        protected T compute() {
+            if (endChunk - firstChunk == 1) {
+                return chunk.apply(firstChunk * CHUNK_SIZE, Math.min(size, (firstChunk + 1) * CHUNK_SIZE));
+            }
+            int middle = (firstChunk + endChunk) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(size, firstChunk, middle, parallel, chunk, merge);
+            ChunkTask<T> right = new ChunkTask<>(size, middle, endChunk, parallel, chunk, merge);
+            if (parallel) {
+                left.fork();
+                T rightResult = right.compute();
+                return merge.apply(left.join(), rightResult);
+            }
+            T leftResult = left.compute();
+            return merge.apply(leftResult, right.compute());
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.inventory.managers;
 
 import java.util.*;
 import java.util.Scanner;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import com.inventory.models.Product;
 import com.inventory.models.Order;
+import com.inventory.models.Supplier;
 
 public class ReportManager {
     private InventoryManager inventoryManager;
@@ -18,21 +22,14 @@ public class ReportManager {
     public void viewLowStockProducts() {
         System.out.println("\n=== Low Stock Products Report ===");
         
-        // Get products from InventoryManager
-        List<Product> products = getProductsFromInventory();
-        
-        if (products.isEmpty()) {
+        int productCount = inventoryManager.getProductCount();
+        if (productCount == 0) {
             System.out.println("No products found in inventory.");
             return;
         }
         
-        // Filter low stock products
-        List<Product> lowStockProducts = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getQuantity() <= product.getReorderLevel()) {
-                lowStockProducts.add(product);
-            }
-        }
+        // Low stock products come from the maintained index, most urgent first
+        List<Product> lowStockProducts = inventoryManager.getLowStockProducts();
         
         if (lowStockProducts.isEmpty()) {
             System.out.println("No low stock products found.");
@@ -57,7 +54,8 @@ public class ReportManager {
         // Show summary
         System.out.println("\n=== Summary ===");
         System.out.println("Total Low Stock Products: " + lowStockProducts.size());
-        System.out.println("Total Products in Inventory: " + products.size());
+        System.out.println("Total Products in Inventory: " + productCount);
+        System.out.println("Source: low-stock index");
         
         // Show critical items (quantity = 0)
         long criticalItems = lowStockProducts.stream()
@@ -71,18 +69,14 @@ public class ReportManager {
     public void viewTotalInventoryValue() {
         System.out.println("\n=== Total Inventory Value Report ===");
         
-        // Get products from InventoryManager
-        List<Product> products = getProductsFromInventory();
+        // Get products from InventoryManager, highest price first
+        List<Product> products = inventoryManager.getProductsByPrice(true);
         
         if (products.isEmpty()) {
             System.out.println("Inventory is empty.");
             return;
         }
         
-        // Calculate total value
-        double totalValue = 0.0;
-        int totalItems = 0;
-        
         // Print header
         System.out.printf("%-10s %-20s %-12s %-10s %-15s%n", 
                          "ID", "Name", "Price", "Quantity", "Item Value");
@@ -91,8 +85,6 @@ public class ReportManager {
         // Print each product with its value
         for (Product product : products) {
             double itemValue = product.getPrice() * product.getQuantity();
-            totalValue += itemValue;
-            totalItems += product.getQuantity();
             
             System.out.printf("%-10s %-20s $%-11.2f %-10d $%-14.2f%n",
                              product.getId(), 
@@ -102,20 +94,24 @@ public class ReportManager {
                              itemValue);
         }
         
-        // Show summary
+        // Show summary, totalled over the product columns
+        InventoryTotals totals = inventoryManager.getInventoryTotals();
+        double totalValue = totals.getTotalValue();
+        long totalItems = totals.getTotalItems();
         System.out.println("------------------------------------------------------------");
         System.out.println("\n=== Inventory Summary ===");
-        System.out.println("Total Products: " + products.size());
+        System.out.println("Total Products: " + totals.getProductCount());
         System.out.println("Total Items: " + totalItems);
         System.out.printf("Total Inventory Value: $%.2f%n", totalValue);
         
         // Show average values
-        if (products.size() > 0) {
+        if (totals.getProductCount() > 0 && totalItems > 0) {
             double avgItemValue = totalValue / totalItems;
-            double avgProductValue = totalValue / products.size();
+            double avgProductValue = totalValue / totals.getProductCount();
             System.out.printf("Average Item Value: $%.2f%n", avgItemValue);
             System.out.printf("Average Product Value: $%.2f%n", avgProductValue);
         }
+        System.out.println("Execution Mode: " + totals.getExecutionMode());
     }
     
     public void viewSalesSummary() {
@@ -124,69 +120,57 @@ public class ReportManager {
         // Get orders from OrderManager
         List<Order> orders = getOrdersFromOrderManager();
         
-        if (orders.isEmpty()) {
+        if (orders.isEmpty() && orderManager.getArchivedOrderCount() == 0) {
             System.out.println("No sales found.");
             System.out.println("No orders have been processed yet.");
             return;
         }
         
-        // Get current date info
-        Calendar now = Calendar.getInstance();
-        int currentDay = now.get(Calendar.DAY_OF_MONTH);
-        int currentMonth = now.get(Calendar.MONTH);
-        int currentYear = now.get(Calendar.YEAR);
-        
-        // Calculate daily and monthly totals
-        double dailyTotal = 0.0;
-        double monthlyTotal = 0.0;
-        int dailyOrders = 0;
-        int monthlyOrders = 0;
+        // Overall totals are kept running; daily and monthly totals come from the time rollup
+        SalesTotals totals = orderManager.getSalesTotals();
+        SalesTotals today = orderManager.getSalesTotalsToday();
+        SalesTotals thisMonth = orderManager.getSalesTotalsThisMonth();
         
-        // For this implementation, we'll use order IDs to simulate date-based filtering
-        // In a real application, you'd have actual date fields in the Order class
-        for (Order order : orders) {
-            // Simulate daily sales (orders with even IDs for demo purposes)
-            // In reality, you'd check actual order dates
-            if (Integer.parseInt(order.getId().substring(1)) % 2 == 0) {
-                dailyTotal += order.getTotalAmount();
-                dailyOrders++;
-            }
-            
-            // Simulate monthly sales (all orders for demo purposes)
-            monthlyTotal += order.getTotalAmount();
-            monthlyOrders++;
-        }
+        // Names of every ordered product, resolved in one call
+        Map<String, String> productNames = inventoryManager.resolveProductNames(orderManager.getSalesTotalsByProduct().keySet());
         
         // Print order details
-        System.out.println("=== Recent Orders ===");
-        System.out.printf("%-10s %-10s %-10s %-15s%n", 
-                         "Order ID", "Product ID", "Quantity", "Total Amount");
-        System.out.println("------------------------------------------------");
+        System.out.println("=== Recent Orders (current month) ===");
+        System.out.printf("%-10s %-10s %-20s %-10s %-15s%n", 
+                         "Order ID", "Product ID", "Product", "Quantity", "Total Amount");
+        System.out.println("---------------------------------------------------------------------");
         
         for (Order order : orders) {
-            System.out.printf("%-10s %-10s %-10d $%-14.2f%n",
+            System.out.printf("%-10s %-10s %-20s %-10d $%-14.2f%n",
                              order.getId(), 
                              order.getProductId(), 
+                             productNames.get(order.getProductId()), 
                              order.getQuantity(), 
                              order.getTotalAmount());
         }
+        int archived = orderManager.getArchivedOrderCount();
+        if (archived > 0) {
+            System.out.println("(" + archived + " orders from earlier months are archived and not listed)");
+        }
         
         // Show summary
         System.out.println("\n=== Sales Summary ===");
-        System.out.println("Total Orders: " + orders.size());
-        System.out.printf("Total Sales Value: $%.2f%n", monthlyTotal);
-        System.out.printf("Daily Sales (Simulated): $%.2f (%d orders)%n", dailyTotal, dailyOrders);
-        System.out.printf("Monthly Sales (Simulated): $%.2f (%d orders)%n", monthlyTotal, monthlyOrders);
+        System.out.println("Total Orders: " + totals.getOrderCount());
+        System.out.printf("Total Sales Value: $%.2f%n", totals.getTotalSales());
+        System.out.printf("Today's Sales: $%.2f (%d orders)%n", today.getTotalSales(), today.getOrderCount());
+        System.out.printf("This Month's Sales: $%.2f (%d orders)%n", thisMonth.getTotalSales(), thisMonth.getOrderCount());
         
         // Show averages
-        if (orders.size() > 0) {
-            double avgOrderValue = monthlyTotal / orders.size();
-            System.out.printf("Average Order Value: $%.2f%n", avgOrderValue);
+        if (totals.getOrderCount() > 0) {
+            System.out.printf("Average Order Value: $%.2f%n", totals.getAverageOrderValue());
         }
+        System.out.println("Execution Mode: " + totals.getExecutionMode());
         
-        // Note about simulation
-        System.out.println("\nNote: Daily/Monthly filtering is simulated for demo purposes.");
-        System.out.println("In a production system, orders would have actual date fields.");
+        // Orders saved before timestamps were recorded have no date to filter on
+        int undated = orderManager.getUndatedOrderCount();
+        if (undated > 0) {
+            System.out.println("\nNote: " + undated + " older orders have no creation date and are not in the daily/monthly figures.");
+        }
     }
     
     // Helper methods to access data from other managers
@@ -206,19 +190,12 @@ public class ReportManager {
     public void exportLowStockReport() {
         System.out.println("\n=== Export Low Stock Report ===");
         
-        List<Product> products = getProductsFromInventory();
-        if (products.isEmpty()) {
+        if (inventoryManager.getProductCount() == 0) {
             System.out.println("No products found to export.");
             return;
         }
         
-        // Filter low stock products
-        List<Product> lowStockProducts = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getQuantity() <= product.getReorderLevel()) {
-                lowStockProducts.add(product);
-            }
-        }
+        List<Product> lowStockProducts = inventoryManager.getLowStockProducts();
         
         if (lowStockProducts.isEmpty()) {
             System.out.println("No low stock products found to export.");
@@ -313,61 +290,117 @@ public class ReportManager {
 
     // --- GUI Data Methods ---
     public List<Product> getLowStockProducts() {
-        List<Product> products = getProductsFromInventory();
-        List<Product> lowStockProducts = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getQuantity() <= product.getReorderLevel()) {
-                lowStockProducts.add(product);
-            }
-        }
-        return lowStockProducts;
+        return inventoryManager.getLowStockProducts();
     }
 
     public List<Product> getAllProducts() {
         return getProductsFromInventory();
     }
 
+    // Full history: archived months are loaded from their segments
     public List<Order> getAllOrders() {
-        return getOrdersFromOrderManager();
+        return orderManager.getAllOrders();
     }
 
-    public String getInventoryValueSummary() {
-        List<Product> products = getProductsFromInventory();
-        if (products.isEmpty()) return "Inventory is empty.";
-        double totalValue = 0.0;
-        int totalItems = 0;
-        for (Product product : products) {
-            totalValue += product.getPrice() * product.getQuantity();
-            totalItems += product.getQuantity();
+    // Orders, units and sales per month over the last few months, current month included.
+    // Only the archived months in the range are loaded.
+    public String getSalesHistoryText(int months) {
+        ZoneId zone = ZoneId.systemDefault();
+        YearMonth first = YearMonth.now(zone).minusMonths(months - 1);
+        long from = first.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Map<YearMonth, SalesAggregates.Figures> byMonth = new TreeMap<>();
+        for (Order order : orderManager.getOrdersBetween(from, Long.MAX_VALUE)) {
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(order.getCreatedAt()).atZone(zone));
+            byMonth.computeIfAbsent(month, m -> new SalesAggregates.Figures()).add(order);
         }
         StringBuilder sb = new StringBuilder();
-        sb.append("Total Products: ").append(products.size()).append("\n");
+        sb.append("Sales by Month (last ").append(months).append(" months):\n");
+        if (byMonth.isEmpty()) {
+            sb.append("No dated orders in this period.\n");
+        }
+        for (Map.Entry<YearMonth, SalesAggregates.Figures> month : byMonth.entrySet()) {
+            SalesAggregates.Figures figures = month.getValue();
+            sb.append(String.format("%s: %d orders, %d units, $%.2f\n", month.getKey(),
+                    figures.orders, figures.units, figures.sales.value()));
+        }
+        return sb.toString();
+    }
+
+    // Sales of one product: all-time totals plus its current-month orders from the product index
+    public String getProductSalesText(String productId) {
+        SalesTotals totals = orderManager.getSalesTotalsForProduct(productId);
+        if (totals.getOrderCount() == 0) return "No sales found for " + productId + ".";
+        String name = inventoryManager.resolveProductNames(Collections.singletonList(productId)).get(productId);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Product: ").append(productId).append(" - ").append(name).append("\n");
+        sb.append("Total Orders: ").append(totals.getOrderCount()).append("\n");
+        sb.append("Units Sold: ").append(totals.getUnitsSold()).append("\n");
+        sb.append(String.format("Total Sales Value: $%.2f\n", totals.getTotalSales()));
+        sb.append(String.format("Average Order Value: $%.2f\n", totals.getAverageOrderValue()));
+        List<Order> recent = orderManager.getOrdersForProduct(productId);
+        if (!recent.isEmpty()) {
+            sb.append("\nRecent Orders (current month only; earlier months are archived and not listed):\n");
+            for (Order order : recent) {
+                sb.append(String.format("%-10s %-15s x%-5d $%.2f\n",
+                        order.getId(), order.getCustomerName(), order.getQuantity(), order.getTotalAmount()));
+            }
+        }
+        return sb.toString();
+    }
+
+    public String getInventoryValueSummary() {
+        InventoryTotals totals = inventoryManager.getInventoryTotals();
+        int productCount = totals.getProductCount();
+        if (productCount == 0) return "Inventory is empty.";
+        double totalValue = totals.getTotalValue();
+        long totalItems = totals.getTotalItems();
+        StringBuilder sb = new StringBuilder();
+        sb.append("Total Products: ").append(productCount).append("\n");
         sb.append("Total Items: ").append(totalItems).append("\n");
         sb.append(String.format("Total Inventory Value: $%.2f\n", totalValue));
-        if (products.size() > 0 && totalItems > 0) {
+        if (totalItems > 0) {
             double avgItemValue = totalValue / totalItems;
-            double avgProductValue = totalValue / products.size();
+            double avgProductValue = totalValue / productCount;
             sb.append(String.format("Average Item Value: $%.2f\n", avgItemValue));
             sb.append(String.format("Average Product Value: $%.2f\n", avgProductValue));
         }
+        sb.append("Execution Mode: ").append(totals.getExecutionMode()).append("\n");
         return sb.toString();
     }
 
-    public String getSalesSummaryText() {
-        List<Order> orders = getOrdersFromOrderManager();
-        if (orders.isEmpty()) return "No sales found.";
-        double totalSales = 0.0;
-        int totalOrders = orders.size();
-        for (Order order : orders) {
-            totalSales += order.getTotalAmount();
+    public String getSupplierSummaryText(List<Supplier> suppliers) {
+        if (suppliers.isEmpty()) return "No suppliers found.";
+        StringBuilder sb = new StringBuilder();
+        // One pass over the product columns totals every supplier at once
+        Map<String, InventoryTotals> totalsBySupplier = inventoryManager.getTotalsBySupplier();
+        for (Supplier supplier : suppliers) {
+            InventoryTotals totals = totalsBySupplier.get(supplier.getId());
+            int productCount = totals == null ? 0 : totals.getProductCount();
+            long totalItems = totals == null ? 0 : totals.getTotalItems();
+            double totalValue = totals == null ? 0.0 : totals.getTotalValue();
+            sb.append(String.format("%s - %s: %d products, %d items, $%.2f\n",
+                                    supplier.getId(), supplier.getName(), productCount, totalItems, totalValue));
         }
+        InventoryTotals unassigned = totalsBySupplier.get("");
+        if (unassigned != null) {
+            sb.append("Products without a supplier: ").append(unassigned.getProductCount()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    public String getSalesSummaryText() {
+        SalesTotals totals = orderManager.getSalesTotals();
+        int totalOrders = totals.getOrderCount();
+        if (totalOrders == 0) return "No sales found.";
         StringBuilder sb = new StringBuilder();
         sb.append("Total Orders: ").append(totalOrders).append("\n");
-        sb.append(String.format("Total Sales Value: $%.2f\n", totalSales));
-        if (totalOrders > 0) {
-            double avgOrderValue = totalSales / totalOrders;
-            sb.append(String.format("Average Order Value: $%.2f\n", avgOrderValue));
-        }
+        sb.append(String.format("Total Sales Value: $%.2f\n", totals.getTotalSales()));
+        sb.append(String.format("Average Order Value: $%.2f\n", totals.getAverageOrderValue()));
+        SalesTotals today = orderManager.getSalesTotalsToday();
+        SalesTotals thisMonth = orderManager.getSalesTotalsThisMonth();
+        sb.append(String.format("Today's Sales: $%.2f (%d orders)\n", today.getTotalSales(), today.getOrderCount()));
+        sb.append(String.format("This Month's Sales: $%.2f (%d orders)\n", thisMonth.getTotalSales(), thisMonth.getOrderCount()));
+        sb.append("Execution Mode: ").append(totals.getExecutionMode()).append("\n");
         return sb.toString();
     }
 }
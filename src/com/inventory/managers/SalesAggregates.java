@@ -0,0 +1,160 @@
+package com.inventory.managers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import com.inventory.models.Order;
+
+/**
+ * Running sales totals over the order history: overall, per product and per customer.
+ *
+ * Each order is added in O(1), so summaries never walk the history. The
+ * loaded history is totalled in chunks by the report engine, which merges the
+ * chunks' aggregates in a fixed order. Money uses compensated summation, so
+ * rounding error does not build up however long the history grows.
+ */
+class SalesAggregates {
+
+    /**
+     * Order count, units and sales value of one group of orders
+     */
+    static final class Figures {
+        int orders;
+        long units;
+        final ReportEngine.CompensatedSum sales = new ReportEngine.CompensatedSum();
+
+        void add(Order order) {
+            orders++;
+            units += order.getQuantity();
+            sales.add(order.getTotalAmount());
+        }
+
+        void merge(Figures other) {
+            orders += other.orders;
+            units += other.units;
+            sales.add(other.sales);
+        }
+
+        SalesTotals toTotals(String executionMode) {
+            return new SalesTotals(orders, units, sales.value(), executionMode);
+        }
+    }
+
+    static final String EXECUTION_MODE = "Incremental (running totals)";
+
+    private final Figures total = new Figures();
+    private final Map<String, Figures> byProduct = new HashMap<>();
+    private final Map<String, Figures> byCustomer = new HashMap<>();
+
+    void add(Order order) {
+        total.add(order);
+        byProduct.computeIfAbsent(key(order.getProductId()), k -> new Figures()).add(order);
+        byCustomer.computeIfAbsent(key(order.getCustomerName()), k -> new Figures()).add(order);
+    }
+
+    /**
+     * Fold another set of aggregates into this one; used to combine chunks
+     */
+    SalesAggregates merge(SalesAggregates other) {
+        total.merge(other.total);
+        mergeGroups(byProduct, other.byProduct);
+        mergeGroups(byCustomer, other.byCustomer);
+        return this;
+    }
+
+    SalesTotals totals() {
+        return total.toTotals(EXECUTION_MODE);
+    }
+
+    SalesTotals productTotals(String productId) {
+        return groupTotals(byProduct, productId);
+    }
+
+    SalesTotals customerTotals(String customerName) {
+        return groupTotals(byCustomer, customerName);
+    }
+
+    Map<String, SalesTotals> totalsByProduct() {
+        return allTotals(byProduct);
+    }
+
+    Map<String, SalesTotals> totalsByCustomer() {
+        return allTotals(byCustomer);
+    }
+
+    /**
+     * Write the figures, e.g. into the header of an archived order segment
+     */
+    void write(DataOutputStream out) throws IOException {
+        writeFigures(out, total);
+        writeGroups(out, byProduct);
+        writeGroups(out, byCustomer);
+    }
+
+    /**
+     * Read figures written by {@link #write}
+     */
+    static SalesAggregates read(DataInputStream in) throws IOException {
+        SalesAggregates aggregates = new SalesAggregates();
+        readFigures(in, aggregates.total);
+        readGroups(in, aggregates.byProduct);
+        readGroups(in, aggregates.byCustomer);
+        return aggregates;
+    }
+
+    private static void writeFigures(DataOutputStream out, Figures figures) throws IOException {
+        out.writeInt(figures.orders);
+        out.writeLong(figures.units);
+        out.writeDouble(figures.sales.value());
+    }
+
+    private static void readFigures(DataInputStream in, Figures figures) throws IOException {
+        figures.orders = in.readInt();
+        figures.units = in.readLong();
+        figures.sales.add(in.readDouble());
+    }
+
+    private static void writeGroups(DataOutputStream out, Map<String, Figures> groups) throws IOException {
+        out.writeInt(groups.size());
+        for (Map.Entry<String, Figures> entry : groups.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeFigures(out, entry.getValue());
+        }
+    }
+
+    private static void readGroups(DataInputStream in, Map<String, Figures> groups) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Figures figures = new Figures();
+            String key = in.readUTF();
+            readFigures(in, figures);
+            groups.put(key, figures);
+        }
+    }
+
+    private static SalesTotals groupTotals(Map<String, Figures> groups, String key) {
+        Figures figures = groups.get(key(key));
+        return figures == null ? new Figures().toTotals(EXECUTION_MODE) : figures.toTotals(EXECUTION_MODE);
+    }
+
+    private static Map<String, SalesTotals> allTotals(Map<String, Figures> groups) {
+        Map<String, SalesTotals> totals = new HashMap<>(groups.size() * 2);
+        for (Map.Entry<String, Figures> entry : groups.entrySet()) {
+            totals.put(entry.getKey(), entry.getValue().toTotals(EXECUTION_MODE));
+        }
+        return Collections.unmodifiableMap(totals);
+    }
+
+    private static void mergeGroups(Map<String, Figures> into, Map<String, Figures> from) {
+        for (Map.Entry<String, Figures> entry : from.entrySet()) {
+            into.computeIfAbsent(entry.getKey(), k -> new Figures()).merge(entry.getValue());
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,198 @@
+package com.inventory.managers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Sales bucketed by minute, hour, day and month, in fixed-size ring buffers.
+ *
+ * New orders go into minute buckets. When a ring slot is needed for a newer
+ * bucket, the bucket it held is rolled up into the coarser tier (minute into
+ * hour, hour into day, day into month), so every order is counted in exactly
+ * one bucket and memory stays fixed however long the history grows. Months
+ * that fall off the end of the month ring are dropped; all-time totals are
+ * kept by SalesAggregates. A time-window query adds up the buckets that start
+ * inside the window: exact to the minute for the last two hours, to the hour
+ * for the last two days, and so on.
+ *
+ * Buckets follow the local calendar of the zone given at construction.
+ * Orders without a creation time are only counted, never bucketed.
+ */
+class SalesRollup {
+
+    private static final int MINUTE = 0;
+    private static final int HOUR = 1;
+    private static final int DAY = 2;
+    private static final int MONTH = 3;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Ring sizes: 2 hours of minutes, 2 days of hours, 62 days, 10 years of months
+    private static final int[] CAPACITY = { 120, 48, 62, 120 };
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final ZoneId zone;
+
+    // Per tier, per slot: bucket number (EMPTY if unused) and its figures
+    private final long[][] buckets = new long[CAPACITY.length][];
+    private final int[][] orders = new int[CAPACITY.length][];
+    private final long[][] units = new long[CAPACITY.length][];
+    private final double[][] sales = new double[CAPACITY.length][];
+
+    private int undatedOrders;
+
+    SalesRollup(ZoneId zone) {
+        this.zone = zone;
+        for (int tier = 0; tier < CAPACITY.length; tier++) {
+            buckets[tier] = new long[CAPACITY[tier]];
+            Arrays.fill(buckets[tier], EMPTY);
+            orders[tier] = new int[CAPACITY[tier]];
+            units[tier] = new long[CAPACITY[tier]];
+            sales[tier] = new double[CAPACITY[tier]];
+        }
+    }
+
+    /**
+     * Count an order created at the given time (epoch milliseconds, 0 if unknown)
+     */
+    void add(long createdAt, int quantity, double amount) {
+        if (createdAt <= 0) {
+            undatedOrders++;
+            return;
+        }
+        addToTier(MINUTE, toLocal(createdAt), 1, quantity, amount);
+    }
+
+    /**
+     * Count the figures of one hour of orders at once; createdAt is the time of any order in that hour.
+     * Used for archived months, whose orders are only known by the hour.
+     */
+    void addHour(long createdAt, int orderCount, long quantity, double amount) {
+        if (createdAt > 0) {
+            addToTier(HOUR, toLocal(createdAt), orderCount, quantity, amount);
+        }
+    }
+
+    /**
+     * Get the sales in buckets starting in [fromMillis, toMillis); Long.MAX_VALUE means no upper bound
+     */
+    SalesTotals window(long fromMillis, long toMillis) {
+        long from = toLocal(fromMillis);
+        long to = toMillis == Long.MAX_VALUE ? Long.MAX_VALUE : toLocal(toMillis);
+        int windowOrders = 0;
+        long windowUnits = 0;
+        ReportEngine.CompensatedSum windowSales = new ReportEngine.CompensatedSum();
+        for (int tier = 0; tier < CAPACITY.length; tier++) {
+            long[] tierBuckets = buckets[tier];
+            for (int slot = 0; slot < tierBuckets.length; slot++) {
+                if (tierBuckets[slot] == EMPTY) {
+                    continue;
+                }
+                long start = startOf(tier, tierBuckets[slot]);
+                if (start >= from && start < to) {
+                    windowOrders += orders[tier][slot];
+                    windowUnits += units[tier][slot];
+                    windowSales.add(sales[tier][slot]);
+                }
+            }
+        }
+        return new SalesTotals(windowOrders, windowUnits, windowSales.value(), "Time rollup (minute/hour/day/month buckets)");
+    }
+
+    /**
+     * Get the number of orders without a creation time, which no window includes
+     */
+    int undatedOrderCount() {
+        return undatedOrders;
+    }
+
+    /**
+     * Start of the local day containing the given time, as epoch milliseconds
+     */
+    long startOfDay(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Start of the local month containing the given time, as epoch milliseconds
+     */
+    long startOfMonth(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).withDayOfMonth(1)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Start of the local month after the one containing the given time, as epoch milliseconds
+     */
+    long startOfNextMonth(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).withDayOfMonth(1).plusMonths(1)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    // Add figures to the bucket of a local time, rolling up the bucket it displaces
+    private void addToTier(int tier, long localMillis, int orderCount, long unitCount, double amount) {
+        if (tier == CAPACITY.length) {
+            return; // Older than the month ring
+        }
+        long bucket = bucketOf(tier, localMillis);
+        int slot = (int) Math.floorMod(bucket, (long) CAPACITY[tier]);
+        long held = buckets[tier][slot];
+        if (held != bucket) {
+            if (held != EMPTY && held > bucket) {
+                // Too old for this ring; its bucket has already been rolled up
+                addToTier(tier + 1, localMillis, orderCount, unitCount, amount);
+                return;
+            }
+            if (held != EMPTY) {
+                addToTier(tier + 1, startOf(tier, held), orders[tier][slot], units[tier][slot], sales[tier][slot]);
+            }
+            buckets[tier][slot] = bucket;
+            orders[tier][slot] = 0;
+            units[tier][slot] = 0;
+            sales[tier][slot] = 0.0;
+        }
+        orders[tier][slot] += orderCount;
+        units[tier][slot] += unitCount;
+        sales[tier][slot] += amount;
+    }
+
+    // Wall-clock time in the zone, as milliseconds since the local epoch
+    private long toLocal(long millis) {
+        return millis + zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+    }
+
+    private static long bucketOf(int tier, long localMillis) {
+        switch (tier) {
+            case MINUTE:
+                return Math.floorDiv(localMillis, MILLIS_PER_MINUTE);
+            case HOUR:
+                return Math.floorDiv(localMillis, MILLIS_PER_HOUR);
+            case DAY:
+                return Math.floorDiv(localMillis, MILLIS_PER_DAY);
+            case MONTH:
+            default:
+                LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY));
+                return date.getYear() * 12L + date.getMonthValue() - 1;
+        }
+    }
+
+    private static long startOf(int tier, long bucket) {
+        switch (tier) {
+            case MINUTE:
+                return bucket * MILLIS_PER_MINUTE;
+            case HOUR:
+                return bucket * MILLIS_PER_HOUR;
+            case DAY:
+                return bucket * MILLIS_PER_DAY;
+            case MONTH:
+            default:
+                LocalDate date = LocalDate.of((int) Math.floorDiv(bucket, 12L), (int) Math.floorMod(bucket, 12L) + 1, 1);
+                return date.toEpochDay() * MILLIS_PER_DAY;
+        }
+    }
+}
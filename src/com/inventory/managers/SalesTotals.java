@@ -0,0 +1,40 @@
+package com.inventory.managers;
+
+/**
+ * Sales totals over the order history, as computed by the report engine.
+ */
+public final class SalesTotals {
+
+    private final int orderCount;
+    private final long unitsSold;
+    private final double totalSales;
+    private final String executionMode;
+
+    SalesTotals(int orderCount, long unitsSold, double totalSales, String executionMode) {
+        this.orderCount = orderCount;
+        this.unitsSold = unitsSold;
+        this.totalSales = totalSales;
+        this.executionMode = executionMode;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public long getUnitsSold() {
+        return unitsSold;
+    }
+
+    public double getTotalSales() {
+        return totalSales;
+    }
+
+    public double getAverageOrderValue() {
+        return orderCount == 0 ? 0.0 : totalSales / orderCount;
+    }
+
+    // How the totals were computed, for report metadata
+    public String getExecutionMode() {
+        return executionMode;
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.managers;
+
+/**
+ * Plain-loop aggregation kernels, used when the Vector API is not available.
+ */
+class ScalarKernels implements AggregationKernels {
+
+    @Override
+    public double totalValue(double[] prices, int[] quantities, int from, int to) {
+        double total = 0.0;
+        for (int i = from; i < to; i++) {
+            total += prices[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public long totalUnits(int[] quantities, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public int countLowStock(int[] quantities, int[] reorderLevels, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (quantities[i] <= reorderLevels[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countOutOfStock(int[] quantities, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (quantities[i] == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int filterPriceRange(double[] prices, int from, int to, double minPrice, double maxPrice, int[] positions) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (prices[i] >= minPrice && prices[i] <= maxPrice) {
+                positions[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
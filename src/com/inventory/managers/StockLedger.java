@@ -0,0 +1,127 @@
+package com.inventory.managers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.inventory.models.Product;
+
+/**
+ * Concurrent stock counters, one per product.
+ *
+ * Every product has an on-hand count and an available count (on hand minus
+ * open reservations), both updated with compare-and-set loops so order-entry
+ * threads never take a shared lock. A sale first reserves its quantity, which
+ * fails instead of going negative when another thread got there first, then
+ * either commits the reservation (the stock leaves the building) or releases
+ * it (the order was abandoned).
+ */
+class StockLedger {
+
+    /**
+     * Counters for one product, plus the Product object its quantity is published to
+     */
+    static final class Counter {
+        final AtomicInteger onHand;
+        final AtomicInteger available;
+        volatile Product product;
+        boolean removed; // Set under the counter's lock when the product is deleted
+
+        Counter(Product product) {
+            this.onHand = new AtomicInteger(product.getQuantity());
+            this.available = new AtomicInteger(product.getQuantity());
+            this.product = product;
+        }
+    }
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Get the counters of a product, or null if the product is not tracked
+     */
+    Counter counter(String productId) {
+        return counters.get(productId);
+    }
+
+    /**
+     * Track a product at its current quantity, keeping any open reservations
+     * @return The product's counter
+     */
+    Counter set(Product product) {
+        Counter counter = counters.computeIfAbsent(product.getId(), key -> new Counter(product));
+        counter.product = product;
+        int quantity = product.getQuantity();
+        while (true) {
+            int onHand = counter.onHand.get();
+            if (onHand == quantity) {
+                return counter;
+            }
+            if (counter.onHand.compareAndSet(onHand, quantity)) {
+                counter.available.addAndGet(quantity - onHand);
+                return counter;
+            }
+        }
+    }
+
+    void remove(String productId) {
+        counters.remove(productId);
+    }
+
+    void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Hold back stock for a sale in progress
+     * @return false if fewer than quantity units are available
+     */
+    boolean tryReserve(String productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null || quantity < 0) {
+            return false;
+        }
+        while (true) {
+            int available = counter.available.get();
+            if (available < quantity) {
+                return false;
+            }
+            if (counter.available.compareAndSet(available, available - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take reserved stock off the shelf
+     * @return The new on-hand quantity
+     */
+    int commit(String productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new IllegalStateException("No stock reserved for product " + productId);
+        }
+        return counter.onHand.addAndGet(-quantity);
+    }
+
+    /**
+     * Return reserved stock that will not be sold
+     */
+    void release(String productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.available.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Add stock (deliveries, returns); not subject to reservations
+     * @return The new on-hand quantity
+     */
+    int restock(String productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new IllegalStateException("Product " + productId + " is not tracked by the stock ledger");
+        }
+        counter.available.addAndGet(quantity);
+        return counter.onHand.addAndGet(quantity);
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventory.managers;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared out between keys by hash.
+ *
+ * Transactions that touch several keys lock every stripe they need in
+ * ascending stripe order, so two transactions can never wait on each other in
+ * a cycle, and transactions over unrelated keys usually land on different
+ * stripes and run in parallel.
+ */
+class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * @param minStripes Lower bound on the number of stripes; rounded up to a power of two
+     */
+    StripedLocks(int minStripes) {
+        int stripes = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = stripes - 1;
+    }
+
+    /**
+     * Get the distinct stripes covering the keys, in locking order
+     */
+    int[] stripesFor(Collection<String> keys) {
+        int[] stripes = new int[keys.size()];
+        int count = 0;
+        for (String key : keys) {
+            stripes[count++] = stripeOf(key);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return Arrays.copyOf(stripes, distinct);
+    }
+
+    void lock(int[] stripes) {
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+    }
+
+    void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private int stripeOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
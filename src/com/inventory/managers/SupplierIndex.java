@@ -0,0 +1,69 @@
+package com.inventory.managers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from supplier ID to the IDs of the products it supplies.
+ *
+ * The supplier each product was last indexed under is remembered, because the
+ * screens edit Product objects in place before handing them back to the
+ * InventoryManager; re-indexing a product moves it between suppliers only when
+ * its supplier actually changed.
+ */
+class SupplierIndex {
+
+    private final Map<String, Set<String>> productIdsBySupplier = new HashMap<>();
+    private final Map<String, String> supplierByProduct = new HashMap<>();
+
+    /**
+     * Add a product, or move it if its supplier changed since it was last indexed
+     */
+    void index(String productId, String supplierId) {
+        String supplier = supplierId == null ? "" : supplierId;
+        String previous = supplierByProduct.put(productId, supplier);
+        if (supplier.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unlink(previous, productId);
+        }
+        productIdsBySupplier.computeIfAbsent(supplier, key -> new LinkedHashSet<>()).add(productId);
+    }
+
+    void remove(String productId) {
+        String previous = supplierByProduct.remove(productId);
+        if (previous != null) {
+            unlink(previous, productId);
+        }
+    }
+
+    void clear() {
+        productIdsBySupplier.clear();
+        supplierByProduct.clear();
+    }
+
+    /**
+     * Get the IDs of the products supplied by a supplier, in the order they were indexed
+     */
+    Collection<String> productIds(String supplierId) {
+        Set<String> ids = productIdsBySupplier.get(supplierId);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    int count(String supplierId) {
+        Set<String> ids = productIdsBySupplier.get(supplierId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    private void unlink(String supplierId, String productId) {
+        Set<String> ids = productIdsBySupplier.get(supplierId);
+        if (ids != null && ids.remove(productId) && ids.isEmpty()) {
+            productIdsBySupplier.remove(supplierId);
+        }
+    }
+}
@@ -4,15 +4,23 @@ import java.util.*;
 import java.util.Scanner;
 import com.inventory.models.Supplier;
 import com.inventory.DataStore;
+import com.inventory.PersistenceService;
+import com.inventory.SequenceService;
 
 public class SupplierManager {
     private List<Supplier> suppliers;
-    private int supplierIdCounter;
+    private final SequenceService.Sequence supplierIds;
+    private final PrefixIndex nameIndex = new PrefixIndex(); // Supplier names and IDs for autocomplete
+    private final PersistenceService persistence;
     
     public SupplierManager() {
         this.suppliers = new ArrayList<>();
-        this.supplierIdCounter = 1;
+        this.persistence = PersistenceService.getInstance();
+        persistence.register(DataStore.SUPPLIERS_FILE, this::snapshotSuppliers);
         loadSuppliers();
+        // Records are only scanned for a seed the first time the sequence is used
+        this.supplierIds = SequenceService.getInstance().sequence("supplier",
+                () -> SequenceService.nextNumberAfter(suppliers, Supplier::getId));
     }
     
     // Supplier Management Methods
@@ -38,11 +46,14 @@ public class SupplierManager {
         }
         
         // Generate supplier ID
-        String id = "S" + String.format("%03d", supplierIdCounter++);
+        String id = supplierIds.nextId("S");
         
         // Create and add supplier
         Supplier supplier = new Supplier(id, name, contactInfo);
-        suppliers.add(supplier);
+        synchronized (this) {
+            suppliers.add(supplier);
+            nameIndex.put(supplier.getId(), supplier.getName(), supplier.getId());
+        }
         
         System.out.println("Supplier added successfully! Supplier ID: " + id);
     }
@@ -61,7 +72,7 @@ public class SupplierManager {
         System.out.println("------------------------------------------------------------");
         
         // Print each supplier
-        for (Supplier supplier : suppliers) {
+        for (Supplier supplier : snapshotSuppliers()) {
             System.out.printf("%-10s %-30s %-30s%n",
                              supplier.getId(), 
                              supplier.getName(), 
@@ -97,7 +108,9 @@ public class SupplierManager {
         System.out.print("Name [" + supplier.getName() + "]: ");
         String name = scanner.nextLine().trim();
         if (!name.isEmpty()) {
-            supplier.setName(name);
+            synchronized (this) {
+                supplier.setName(name);
+            }
             System.out.println("Name updated to: " + name);
         }
         
@@ -105,9 +118,14 @@ public class SupplierManager {
         System.out.print("Contact Information [" + supplier.getContactInfo() + "]: ");
         String contactInfo = scanner.nextLine().trim();
         if (!contactInfo.isEmpty()) {
-            supplier.setContactInfo(contactInfo);
+            synchronized (this) {
+                supplier.setContactInfo(contactInfo);
+            }
             System.out.println("Contact information updated to: " + contactInfo);
         }
+        synchronized (this) {
+            nameIndex.put(supplier.getId(), supplier.getName(), supplier.getId());
+        }
         
         System.out.println("Supplier updated successfully!");
     }
@@ -143,7 +161,10 @@ public class SupplierManager {
         String confirm = scanner.nextLine().trim().toLowerCase();
         
         if (confirm.equals("y") || confirm.equals("yes")) {
-            suppliers.remove(supplier);
+            synchronized (this) {
+                suppliers.remove(supplier);
+                nameIndex.remove(supplier.getId());
+            }
             System.out.println("Supplier deleted successfully!");
         } else {
             System.out.println("Deletion cancelled.");
@@ -155,15 +176,15 @@ public class SupplierManager {
      * Generate a new unique supplier ID (e.g., S001, S002, ...)
      */
     public String generateSupplierId() {
-        String id = "S" + String.format("%03d", supplierIdCounter++);
-        return id;
+        return supplierIds.nextId("S");
     }
     
     /**
      * Add a new supplier (GUI version)
      */
-    public void addSupplier(Supplier supplier) {
+    public synchronized void addSupplier(Supplier supplier) {
         suppliers.add(supplier);
+        nameIndex.put(supplier.getId(), supplier.getName(), supplier.getId());
         saveSuppliers();
     }
     
@@ -171,10 +192,11 @@ public class SupplierManager {
      * Update an existing supplier (GUI version)
      * Finds the supplier by ID and updates its fields.
      */
-    public void updateSupplier(Supplier updatedSupplier) {
+    public synchronized void updateSupplier(Supplier updatedSupplier) {
         for (int i = 0; i < suppliers.size(); i++) {
             if (suppliers.get(i).getId().equals(updatedSupplier.getId())) {
                 suppliers.set(i, updatedSupplier);
+                nameIndex.put(updatedSupplier.getId(), updatedSupplier.getName(), updatedSupplier.getId());
                 saveSuppliers();
                 return;
             }
@@ -185,20 +207,38 @@ public class SupplierManager {
     /**
      * Delete a supplier by ID (GUI version)
      */
-    public void deleteSupplier(String supplierId) {
+    public synchronized void deleteSupplier(String supplierId) {
         suppliers.removeIf(supplier -> supplier.getId().equals(supplierId));
+        nameIndex.remove(supplierId);
         saveSuppliers();
     }
     
+    /**
+     * Suggest suppliers whose name or ID starts with the typed text (GUI autocomplete)
+     * @param prefix The text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching suppliers, best match first
+     */
+    public synchronized List<Supplier> suggestSuppliers(String prefix, int limit) {
+        List<Supplier> results = new ArrayList<>();
+        for (String id : nameIndex.complete(prefix, limit)) {
+            Supplier supplier = findSupplierById(id);
+            if (supplier != null) {
+                results.add(supplier);
+            }
+        }
+        return results;
+    }
+    
     /**
      * Get all suppliers (GUI version)
      */
-    public List<Supplier> getSuppliers() {
+    public synchronized List<Supplier> getSuppliers() {
         return new ArrayList<>(suppliers);
     }
     
     // Helper method to find supplier by ID
-    private Supplier findSupplierById(String id) {
+    private synchronized Supplier findSupplierById(String id) {
         for (Supplier supplier : suppliers) {
             if (supplier.getId().equals(id)) {
                 return supplier;
@@ -208,43 +248,28 @@ public class SupplierManager {
     }
     
     // Data Persistence Methods
-    private void loadSuppliers() {
+    private synchronized void loadSuppliers() {
         List<Supplier> loadedSuppliers = DataStore.loadData(DataStore.SUPPLIERS_FILE);
         if (loadedSuppliers != null) {
             this.suppliers = loadedSuppliers;
-            // Update supplier ID counter to avoid conflicts
-            updateSupplierIdCounter();
+            for (Supplier supplier : suppliers) {
+                nameIndex.put(supplier.getId(), supplier.getName(), supplier.getId());
+            }
             System.out.println("✓ Loaded " + suppliers.size() + " suppliers from storage");
         } else {
             System.out.println("ℹ Starting with empty supplier list");
         }
     }
     
+    /**
+     * Queue a save of the supplier list; it is written in the background by the PersistenceService
+     */
     public void saveSuppliers() {
-        boolean success = DataStore.saveData(DataStore.SUPPLIERS_FILE, suppliers);
-        if (success) {
-            System.out.println("✓ Supplier data saved successfully");
-        } else {
-            System.err.println("✗ Failed to save supplier data");
-        }
+        persistence.markDirty(DataStore.SUPPLIERS_FILE);
     }
     
-    private void updateSupplierIdCounter() {
-        if (!suppliers.isEmpty()) {
-            // Find the highest supplier ID number and set counter accordingly
-            int maxId = 0;
-            for (Supplier supplier : suppliers) {
-                try {
-                    String idStr = supplier.getId().substring(1); // Remove 'S' prefix
-                    int idNum = Integer.parseInt(idStr);
-                    if (idNum > maxId) {
-                        maxId = idNum;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip invalid IDs
-                }
-            }
-            this.supplierIdCounter = maxId + 1;
-        }
+    // Copy taken by the persistence thread when it writes the suppliers file
+    private synchronized List<Supplier> snapshotSuppliers() {
+        return new ArrayList<>(suppliers);
     }
 }
@@ -0,0 +1,239 @@
+package com.inventory.managers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.inventory.models.Product;
+
+/**
+ * Substring search index over product names and IDs.
+ *
+ * Every lowercased name and ID is split into overlapping three-character
+ * grams, and each gram keeps a sorted posting list of the list positions that
+ * contain it. A query of three or more characters intersects the posting
+ * lists of its own grams, smallest first, and only the surviving candidates
+ * are checked with contains(). Shorter queries scan the cached lowercase text.
+ *
+ * Positions follow the InventoryManager's product list, including its
+ * swap-remove on delete.
+ */
+class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Lowercased text last indexed for each position (dense, 0 .. size-1)
+    private String[] names = new String[16];
+    private String[] ids = new String[16];
+    private int size;
+
+    /**
+     * Index the name and ID of a position; position == size appends a new product
+     */
+    void set(int position, String name, String id) {
+        String lowerName = lower(name);
+        String lowerId = lower(id);
+        if (position < size) {
+            if (lowerName.equals(names[position]) && lowerId.equals(ids[position])) {
+                return;
+            }
+            for (long gram : grams(names[position], ids[position])) {
+                unlink(gram, position);
+            }
+        } else if (position == size) {
+            ensureCapacity(size + 1);
+            size++;
+        } else {
+            throw new IllegalArgumentException("Position " + position + " is past the end of the index");
+        }
+        names[position] = lowerName;
+        ids[position] = lowerId;
+        for (long gram : grams(lowerName, lowerId)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).insert(position);
+        }
+    }
+
+    /**
+     * Mirror a swap-remove on the product list: drop a position and renumber
+     * the last position to take its place
+     */
+    void removeSwap(int position) {
+        int last = size - 1;
+        for (long gram : grams(names[position], ids[position])) {
+            unlink(gram, position);
+        }
+        if (position != last) {
+            for (long gram : grams(names[last], ids[last])) {
+                Postings list = postings.get(gram);
+                list.remove(last);
+                list.insert(position);
+            }
+            names[position] = names[last];
+            ids[position] = ids[last];
+        }
+        names[last] = null;
+        ids[last] = null;
+        size--;
+    }
+
+    /**
+     * Replace the whole index with the given products, one per position
+     */
+    void load(List<Product> products) {
+        clear();
+        ensureCapacity(products.size());
+        // Positions are visited in increasing order, so every posting list is appended in sorted order
+        for (int position = 0; position < products.size(); position++) {
+            Product product = products.get(position);
+            names[position] = lower(product.getName());
+            ids[position] = lower(product.getId());
+            for (long gram : grams(names[position], ids[position])) {
+                postings.computeIfAbsent(gram, key -> new Postings()).append(position);
+            }
+        }
+        size = products.size();
+    }
+
+    void clear() {
+        postings.clear();
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Find the positions whose name (or ID, if matchIds is set) contains the query, in list order
+     */
+    int[] search(String query, boolean matchIds) {
+        String term = lower(query);
+        if (term.length() < GRAM) {
+            return scan(term, matchIds);
+        }
+
+        // Gather the posting lists of the query's grams, smallest first
+        Set<Long> queryGrams = new HashSet<>();
+        addGrams(term, queryGrams);
+        Postings[] lists = new Postings[queryGrams.size()];
+        int count = 0;
+        for (long gram : queryGrams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists[count++] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] matches = new int[lists[0].size];
+        int found = 0;
+        candidates:
+        for (int i = 0; i < lists[0].size; i++) {
+            int position = lists[0].items[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(position)) {
+                    continue candidates;
+                }
+            }
+            // Grams can come from both fields or from separate places, so confirm the substring
+            if (matches(position, term, matchIds)) {
+                matches[found++] = position;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    private int[] scan(String term, boolean matchIds) {
+        int[] matches = new int[size];
+        int found = 0;
+        for (int position = 0; position < size; position++) {
+            if (matches(position, term, matchIds)) {
+                matches[found++] = position;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    private boolean matches(int position, String term, boolean matchIds) {
+        return names[position].contains(term) || (matchIds && ids[position].contains(term));
+    }
+
+    private void unlink(long gram, int position) {
+        Postings list = postings.get(gram);
+        if (list != null && list.remove(position) && list.size == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    private static Set<Long> grams(String name, String id) {
+        Set<Long> grams = new HashSet<>();
+        addGrams(name, grams);
+        addGrams(id, grams);
+        return grams;
+    }
+
+    // Three UTF-16 chars packed into one long key
+    private static void addGrams(String text, Set<Long> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > names.length) {
+            int newCapacity = Math.max(capacity, names.length * 2);
+            names = Arrays.copyOf(names, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+        }
+    }
+
+    /**
+     * Sorted, growable list of positions
+     */
+    private static final class Postings {
+        int[] items = new int[4];
+        int size;
+
+        void append(int position) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = position;
+        }
+
+        void insert(int position) {
+            int index = Arrays.binarySearch(items, 0, size, position);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            System.arraycopy(items, index, items, index + 1, size - index);
+            items[index] = position;
+            size++;
+        }
+
+        boolean remove(int position) {
+            int index = Arrays.binarySearch(items, 0, size, position);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(items, index + 1, items, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int position) {
+            return Arrays.binarySearch(items, 0, size, position) >= 0;
+        }
+    }
+}
@@ -4,14 +4,18 @@ import java.util.*;
 import java.util.Scanner;
 import com.inventory.models.User;
 import com.inventory.DataStore;
+import com.inventory.PersistenceService;
 
 public class UserManager {
     private List<User> users;
     private User currentUser;
     private static final String USERS_FILE = "users.dat";
+    private final PersistenceService persistence;
     
     public UserManager() {
         this.users = new ArrayList<>();
+        this.persistence = PersistenceService.getInstance();
+        persistence.register(USERS_FILE, this::snapshotUsers);
         loadUsers();
         initializeDefaultAdmin();
     }
@@ -114,9 +118,15 @@ public class UserManager {
             }
         }
         
-        // Create and add user
+        // Create and add user; the list is only changed under the lock the snapshot copy takes
         User newUser = new User(username, password, role);
-        users.add(newUser);
+        synchronized (this) {
+            if (userExists(username)) {
+                System.out.println("Error: Username already exists.");
+                return;
+            }
+            users.add(newUser);
+        }
         saveUsers();
         
         System.out.println("✓ User created successfully: " + username + " (" + role + ")");
@@ -140,7 +150,7 @@ public class UserManager {
         System.out.println("----------------------------------------");
         
         // Print each user
-        for (User user : users) {
+        for (User user : snapshotUsers()) {
             String status = user.getUsername().equals(currentUser.getUsername()) ? "CURRENT" : "ACTIVE";
             System.out.printf("%-20s %-15s %-10s%n",
                              user.getUsername(), 
@@ -178,14 +188,16 @@ public class UserManager {
         }
         
         // Update password
-        currentUser.setPassword(newPassword);
+        synchronized (this) {
+            currentUser.setPassword(newPassword);
+        }
         saveUsers();
         
         System.out.println("✓ Password changed successfully!");
     }
     
     // Helper Methods
-    public User authenticateUser(String username, String password) {
+    public synchronized User authenticateUser(String username, String password) {
         for (User user : users) {
             if (user.getUsername().equals(username) && user.getPassword().equals(password)) {
                 return user;
@@ -194,7 +206,7 @@ public class UserManager {
         return null;
     }
     
-    private boolean userExists(String username) {
+    private synchronized boolean userExists(String username) {
         for (User user : users) {
             if (user.getUsername().equals(username)) {
                 return true;
@@ -203,7 +215,7 @@ public class UserManager {
         return false;
     }
     
-    private void initializeDefaultAdmin() {
+    private synchronized void initializeDefaultAdmin() {
         if (users.isEmpty()) {
             User admin = new User("admin", "admin123", "ADMIN");
             users.add(admin);
@@ -213,7 +225,7 @@ public class UserManager {
     }
     
     // Data Persistence Methods
-    private void loadUsers() {
+    private synchronized void loadUsers() {
         List<User> loadedUsers = DataStore.loadData(USERS_FILE);
         if (loadedUsers != null) {
             this.users = loadedUsers;
@@ -223,13 +235,16 @@ public class UserManager {
         }
     }
     
+    /**
+     * Queue a save of the user list; it is written in the background by the PersistenceService
+     */
     public void saveUsers() {
-        boolean success = DataStore.saveData(USERS_FILE, users);
-        if (success) {
-            System.out.println("✓ User data saved successfully");
-        } else {
-            System.err.println("✗ Failed to save user data");
-        }
+        persistence.markDirty(USERS_FILE);
+    }
+    
+    // Copy taken by the persistence thread when it writes the users file
+    private synchronized List<User> snapshotUsers() {
+        return new ArrayList<>(users);
     }
 }
 
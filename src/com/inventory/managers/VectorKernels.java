@@ -0,0 +1,136 @@
+package com.inventory.managers;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD aggregation kernels on the jdk.incubator.vector API.
+ *
+ * Quantities are widened from int lanes to double or long lanes, so one loop
+ * step handles as many products as a double vector holds. Vectors are capped
+ * at 256 bits: the scans are memory bound, and 512-bit lanes measured slower.
+ * Leftover slots at the end of a range use scalar code. Only instantiated
+ * through AggregationKernels.select().
+ */
+class VectorKernels implements AggregationKernels {
+
+    private static final VectorShape SHAPE = VectorShape.preferredShape().vectorBitSize() > 256
+            ? VectorShape.S_256_BIT : VectorShape.preferredShape();
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED.withShape(SHAPE);
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED.withShape(SHAPE);
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.withShape(SHAPE);
+    // Int lanes matching the lane count of the double and long species; null if vectors are too narrow.
+    // Species must be static final constants for the JIT to compile them to vector instructions.
+    private static final VectorSpecies<Integer> HALF_INTS = SHAPE.vectorBitSize() < 128
+            ? null : VectorSpecies.of(int.class, VectorShape.forBitSize(SHAPE.vectorBitSize() / 2));
+
+    VectorKernels() {
+        if (HALF_INTS == null) {
+            throw new IllegalStateException("Vector width of " + SHAPE.vectorBitSize() + " bits is too narrow");
+        }
+    }
+
+    @Override
+    public double totalValue(double[] prices, int[] quantities, int from, int to) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int upper = from + DOUBLES.loopBound(to - from);
+        for (; i < upper; i += DOUBLES.length()) {
+            DoubleVector price = DoubleVector.fromArray(DOUBLES, prices, i);
+            DoubleVector quantity = (DoubleVector) IntVector.fromArray(HALF_INTS, quantities, i)
+                    .castShape(DOUBLES, 0);
+            sums = sums.add(price.mul(quantity));
+        }
+        double total = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += prices[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public long totalUnits(int[] quantities, int from, int to) {
+        // Widened to long lanes so large stock counts cannot overflow
+        LongVector sums = LongVector.zero(LONGS);
+        int i = from;
+        int upper = from + LONGS.loopBound(to - from);
+        for (; i < upper; i += LONGS.length()) {
+            sums = sums.add((LongVector) IntVector.fromArray(HALF_INTS, quantities, i)
+                    .castShape(LONGS, 0));
+        }
+        long total = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public int countLowStock(int[] quantities, int[] reorderLevels, int from, int to) {
+        int count = 0;
+        int i = from;
+        int upper = from + INTS.loopBound(to - from);
+        for (; i < upper; i += INTS.length()) {
+            IntVector quantity = IntVector.fromArray(INTS, quantities, i);
+            IntVector reorderLevel = IntVector.fromArray(INTS, reorderLevels, i);
+            count += quantity.compare(VectorOperators.LE, reorderLevel).trueCount();
+        }
+        for (; i < to; i++) {
+            if (quantities[i] <= reorderLevels[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countOutOfStock(int[] quantities, int from, int to) {
+        int count = 0;
+        int i = from;
+        int upper = from + INTS.loopBound(to - from);
+        for (; i < upper; i += INTS.length()) {
+            count += IntVector.fromArray(INTS, quantities, i).compare(VectorOperators.EQ, 0).trueCount();
+        }
+        for (; i < to; i++) {
+            if (quantities[i] == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int filterPriceRange(double[] prices, int from, int to, double minPrice, double maxPrice, int[] positions) {
+        int count = 0;
+        int i = from;
+        int upper = from + DOUBLES.loopBound(to - from);
+        for (; i < upper; i += DOUBLES.length()) {
+            DoubleVector price = DoubleVector.fromArray(DOUBLES, prices, i);
+            VectorMask<Double> inRange = price.compare(VectorOperators.GE, minPrice)
+                    .and(price.compare(VectorOperators.LE, maxPrice));
+            if (inRange.anyTrue()) {
+                for (int lane = inRange.firstTrue(); lane < DOUBLES.length(); lane++) {
+                    if (inRange.laneIsSet(lane)) {
+                        positions[count++] = i + lane;
+                    }
+                }
+            }
+        }
+        for (; i < to; i++) {
+            if (prices[i] >= minPrice && prices[i] <= maxPrice) {
+                positions[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + DOUBLES.vectorBitSize() + "-bit)";
+    }
+}
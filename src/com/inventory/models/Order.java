@@ -3,18 +3,28 @@ package com.inventory.models;
 import java.io.Serializable;
 
 public class Order implements Serializable {
+    // Fixed to the value of the original class so order files written before createdAt still load
+    private static final long serialVersionUID = 6267455997547072324L;
+
     private String id;
     private String productId;
     private int quantity;
     private double totalAmount;
     private String customerName;
+    private long createdAt; // Epoch milliseconds; 0 for orders saved before timestamps were recorded
+    private transient ProductNameRef productNameRef; // Shared with the product's other orders; set by the OrderManager
 
     public Order(String id, String productId, int quantity, double totalAmount, String customerName) {
+        this(id, productId, quantity, totalAmount, customerName, System.currentTimeMillis());
+    }
+
+    public Order(String id, String productId, int quantity, double totalAmount, String customerName, long createdAt) {
         this.id = id;
         this.productId = productId;
         this.quantity = quantity;
         this.totalAmount = totalAmount;
         this.customerName = customerName;
+        this.createdAt = createdAt;
     }
 
     // Getters
@@ -38,6 +48,15 @@ public class Order implements Serializable {
         return customerName;
     }
 
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    // True if the order was saved with a creation time
+    public boolean hasCreatedAt() {
+        return createdAt > 0;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
@@ -45,6 +64,7 @@ public class Order implements Serializable {
 
     public void setProductId(String productId) {
         this.productId = productId;
+        this.productNameRef = null;
     }
 
     public void setQuantity(int quantity) {
@@ -59,10 +79,27 @@ public class Order implements Serializable {
         this.customerName = customerName;
     }
 
-    // Helper to get product name from InventoryManager
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Use a shared reference for the product name instead of looking the product up
+    public void setProductNameRef(ProductNameRef productNameRef) {
+        this.productNameRef = productNameRef;
+    }
+
+    // Product name from the shared reference; an order that was never bound looks it up once
     public String getProductName() {
-        Product product = com.inventory.gui.InventoryManagementApp.getInventoryManager().findProductById(productId);
-        return product != null ? product.getName() : "Unknown";
+        ProductNameRef ref = productNameRef;
+        if (ref == null) {
+            com.inventory.managers.InventoryManager inventoryManager = com.inventory.gui.InventoryManagementApp.getInventoryManager();
+            if (inventoryManager == null) {
+                return ProductNameRef.UNKNOWN_NAME;
+            }
+            ref = inventoryManager.getProductNameRef(productId);
+            productNameRef = ref;
+        }
+        return ref.getName();
     }
 
     public double getTotal() {
@@ -0,0 +1,34 @@
+package com.inventory.models;
+
+/**
+ * The current name of a product, shared by every order of that product.
+ *
+ * The InventoryManager hands out one reference per product ID and updates it
+ * when the product is renamed or deleted, so an order row shows the current
+ * name without looking the product up.
+ */
+public final class ProductNameRef {
+    public static final String UNKNOWN_NAME = "Unknown";
+
+    private final String productId;
+    private volatile String name; // null while no product has this ID
+
+    public ProductNameRef(String productId, String name) {
+        this.productId = productId;
+        this.name = name;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    // The product's name, or "Unknown" if there is no such product
+    public String getName() {
+        String current = name;
+        return current != null ? current : UNKNOWN_NAME;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
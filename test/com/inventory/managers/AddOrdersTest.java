@@ -0,0 +1,91 @@
+package com.inventory.managers;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import com.inventory.PersistenceService;
+import com.inventory.SequenceService;
+import com.inventory.models.Order;
+import com.inventory.models.Product;
+
+/**
+ * Behaviour of OrderManager.addOrders and importOrders.
+ *
+ * The project has no build or test framework, so this is a plain program:
+ * compile it together with src and run it from an empty directory (the
+ * managers read and write their data files in the working directory).
+ * It exits with status 1 on the first failed check.
+ */
+public class AddOrdersTest {
+
+    public static void main(String[] args) throws Exception {
+        InventoryManager inventory = new InventoryManager();
+        inventory.addProduct(new Product("T1", "Bolt", 2.0, 10, 2, ""));
+        inventory.addProduct(new Product("T2", "Nut", 1.0, 5, 1, ""));
+        OrderManager orders = new OrderManager(inventory);
+
+        // Quantities per product are summed and taken in one adjustment; missing IDs are generated
+        Map<String, Integer> left = orders.addOrders(Arrays.asList(
+                new Order(null, "T1", 3, 6.0, "Ann"),
+                new Order(null, "T1", 4, 8.0, "Bob"),
+                new Order("O500", "T2", 2, 2.0, "Ann")));
+        check(left.get("T1") == 3 && left.get("T2") == 3, "stock after batch: " + left);
+        check(orders.getOrders().size() == 3, "three orders added");
+        for (Order order : orders.getOrders()) {
+            check(order.getId() != null && !order.getId().isEmpty(), "every order has an ID");
+        }
+        check(SequenceService.numberOf(orders.generateOrderId()) > 500, "generated IDs pass imported ones");
+
+        // Short of stock: nothing changes
+        expectRejected(() -> orders.addOrders(Arrays.asList(
+                new Order(null, "T2", 1, 1.0, "Cy"),
+                new Order(null, "T1", 4, 8.0, "Cy"))), "short of stock");
+        check(inventory.findProductById("T2").getQuantity() == 3, "no stock taken from a rejected batch");
+        check(orders.getOrders().size() == 3, "no orders added from a rejected batch");
+
+        // Duplicate IDs, within the batch and against existing orders
+        expectRejected(() -> orders.addOrders(Arrays.asList(
+                new Order("O900", "T1", 1, 2.0, "Di"),
+                new Order("O900", "T1", 1, 2.0, "Di"))), "duplicate in batch");
+        expectRejected(() -> orders.addOrders(List.of(new Order("O500", "T1", 1, 2.0, "Di"))), "duplicate of existing");
+        check(inventory.findProductById("T1").getQuantity() == 3, "no stock taken for duplicate IDs");
+
+        // CSV import goes through the same batch
+        File csv = File.createTempFile("orders", ".csv");
+        csv.deleteOnExit();
+        Files.write(csv.toPath(), Arrays.asList("productId,quantity,customer,orderId", "T1,1,Eve", "T2,2,Eve,O777", ""),
+                StandardCharsets.UTF_8);
+        check(orders.importOrders(csv) == 2, "two orders imported");
+        check(inventory.findProductById("T1").getQuantity() == 2 && inventory.findProductById("T2").getQuantity() == 1,
+                "import took its stock");
+        Files.write(csv.toPath(), List.of("T9,1,Eve"), StandardCharsets.UTF_8);
+        expectRejected(() -> orders.importOrders(csv), "unknown product in CSV");
+
+        PersistenceService.getInstance().flush();
+        System.out.println("AddOrdersTest passed");
+        System.exit(0);
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static void expectRejected(Action action, String what) throws Exception {
+        try {
+            action.run();
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        check(false, what + " was not rejected");
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            System.err.println("FAILED: " + what);
+            System.exit(1);
+        }
+    }
+}